@@ -0,0 +1,54 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashing, equality and copying of boards, as done by hash-based maps and
+ * caches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardHashingBenchmark {
+
+    @Param({"START", "MIDDLEGAME"})
+    public String position;
+
+    private ChessGame game;
+    private ChessBoard board;
+    private ChessBoard copy;
+
+    @Setup
+    public void setUp() {
+        game = Positions.named(position);
+        board = game.getBoard();
+        copy = board.deepCopy();
+    }
+
+    @Benchmark
+    public int boardHashCode() {
+        return board.hashCode();
+    }
+
+    @Benchmark
+    public boolean boardEquals() {
+        return board.equals(copy);
+    }
+
+    @Benchmark
+    public int gameHashCode() {
+        return game.hashCode();
+    }
+
+    @Benchmark
+    public ChessBoard deepCopy() {
+        return board.deepCopy();
+    }
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.PositionMoveCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check, checkmate and stalemate detection for the side to move. Every
+ * invocation starts from a fresh copy of the position with the shared
+ * {@link PositionMoveCache} emptied, so neither the legal moves nor the
+ * game status are already cached; {@link MoveCacheHitBenchmark} times the
+ * cached path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStatusBenchmark {
+
+    @Param({"START", "MIDDLEGAME", "CHECKMATE", "STALEMATE"})
+    public String position;
+
+    private ChessGame template;
+    private ChessGame game;
+
+    @Setup
+    public void setUp() {
+        template = Positions.named(position);
+    }
+
+    @Setup(Level.Invocation)
+    public void freshGame() {
+        PositionMoveCache.shared().clear();
+        game = template.deepCopy();
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        return game.isInStalemate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isGameOver() {
+        return game.isGameOver();
+    }
+}
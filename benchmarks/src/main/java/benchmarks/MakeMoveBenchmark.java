@@ -0,0 +1,54 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.PositionMoveCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of playing moves through the validated {@code makeMove} API.
+ * Every invocation replays the same line, so the shared
+ * {@link PositionMoveCache} is emptied first; otherwise every legality
+ * check after warmup would be a cache hit rather than a generation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MakeMoveBenchmark {
+
+    /**
+     * A short Ruy Lopez line with captures, played from a new game.
+     */
+    private static final ChessMove[] LINE = parse("e2e4", "e7e5", "g1f3", "b8c6", "f1b5", "a7a6",
+            "b5c6", "d7c6", "f3e5", "d8d4", "e5f3", "d4e4", "d1e2", "e4e2", "e1e2", "c8g4");
+
+    private ChessGame game;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        PositionMoveCache.shared().clear();
+        game = new ChessGame();
+    }
+
+    @Benchmark
+    public ChessGame playLine() throws InvalidMoveException {
+        for (ChessMove move : LINE) {
+            game.makeMove(move);
+        }
+        return game;
+    }
+
+    private static ChessMove[] parse(String... moves) {
+        ChessMove[] parsed = new ChessMove[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            parsed[i] = Positions.parseMove(moves[i]);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.PositionMoveCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cached paths of {@link MoveGenerationBenchmark} and
+ * {@link GameStatusBenchmark}. The {@code gameCache} benchmarks ask the same
+ * game again, so its own legal move and status caches answer. The
+ * {@code sharedCache} benchmark asks a fresh copy of a position another game
+ * has already seen, so the moves come from {@link PositionMoveCache#shared()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveCacheHitBenchmark {
+
+    @Param({"START", "MIDDLEGAME", "ENDGAME"})
+    public String position;
+
+    private ChessGame template;
+    private ChessGame game;
+    private ChessGame copy;
+
+    @Setup
+    public void setUp() {
+        template = Positions.named(position);
+        game = template.deepCopy();
+        game.allLegalMoves(game.getTeamTurn());
+        game.getGameStatus();
+    }
+
+    @Setup(Level.Invocation)
+    public void freshCopy() {
+        copy = template.deepCopy();
+    }
+
+    @Benchmark
+    public void gameCacheValidMovesEveryPiece(Blackhole blackhole) {
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = ChessPosition.of(row, col);
+                ChessPiece piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == turn) {
+                    blackhole.consume(game.validMoves(position));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Object gameCacheLegalMoves() {
+        return game.legalMoves(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean gameCacheIsInCheckmate() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public ChessGame.GameStatus gameCacheGameStatus() {
+        return game.getGameStatus();
+    }
+
+    @Benchmark
+    public Object sharedCacheLegalMoves() {
+        return copy.legalMoves(copy.getTeamTurn());
+    }
+}
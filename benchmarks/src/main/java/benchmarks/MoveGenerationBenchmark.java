@@ -0,0 +1,63 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.PositionMoveCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation for the side to move, both the per-piece
+ * {@code validMoves} path the client and server use and the whole-side
+ * {@code legalMoves} path. Every invocation starts from a fresh copy of the
+ * position with the shared {@link PositionMoveCache} emptied, so the moves
+ * are generated rather than looked up; {@link MoveCacheHitBenchmark} times
+ * the lookups.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+
+    @Param({"START", "OPENING", "MIDDLEGAME", "ENDGAME"})
+    public String position;
+
+    private ChessGame template;
+    private ChessGame game;
+
+    @Setup
+    public void setUp() {
+        template = Positions.named(position);
+    }
+
+    @Setup(Level.Invocation)
+    public void freshGame() {
+        PositionMoveCache.shared().clear();
+        game = template.deepCopy();
+    }
+
+    @Benchmark
+    public void validMovesEveryPiece(Blackhole blackhole) {
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = ChessPosition.of(row, col);
+                ChessPiece piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == turn) {
+                    blackhole.consume(game.validMoves(position));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Object legalMoves() {
+        return game.legalMoves(game.getTeamTurn());
+    }
+}
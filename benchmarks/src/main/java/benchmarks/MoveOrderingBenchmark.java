@@ -0,0 +1,65 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same fixed-depth search with each {@link Engine.Ordering}. Every
+ * iteration is one search from an empty transposition table, so the
+ * {@code nodes} counter, summed over the measured iterations, divided by
+ * their count is the size of the tree searched at that depth.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveOrderingBenchmark {
+
+    @Param({"START", "MIDDLEGAME", "ENDGAME"})
+    public String position;
+
+    @Param({"HASH_AND_CAPTURES", "HEURISTICS"})
+    public String ordering;
+
+    @Param({"5"})
+    public int depth;
+
+    private final Engine engine = new Engine();
+    private ChessGame game;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        game = Positions.named(position);
+        engine.setOrdering(Engine.Ordering.valueOf(ordering));
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTable() {
+        engine.newGame();
+    }
+
+    @Benchmark
+    public SearchResult fixedDepth(Nodes counter) {
+        SearchResult result = engine.search(game, SearchLimits.depth(depth));
+        counter.nodes += result.nodes();
+        return result;
+    }
+}
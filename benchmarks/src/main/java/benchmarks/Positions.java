@@ -0,0 +1,122 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+
+import java.util.Map;
+
+/**
+ * Reference positions shared by the benchmark suites.
+ */
+public final class Positions {
+
+    private static final Map<Character, ChessPiece.PieceType> CHAR_TO_TYPE = Map.of(
+            'p', ChessPiece.PieceType.PAWN,
+            'n', ChessPiece.PieceType.KNIGHT,
+            'r', ChessPiece.PieceType.ROOK,
+            'q', ChessPiece.PieceType.QUEEN,
+            'k', ChessPiece.PieceType.KING,
+            'b', ChessPiece.PieceType.BISHOP);
+
+    private Positions() {
+    }
+
+    /**
+     * @param name one of START, OPENING, MIDDLEGAME, ENDGAME, CHECKMATE or STALEMATE
+     * @return a fresh game in that position
+     */
+    public static ChessGame named(String name) {
+        return switch (name) {
+            case "START" -> new ChessGame();
+            case "OPENING" -> play(new ChessGame(), "e2e4", "e7e5", "g1f3", "b8c6", "f1b5", "a7a6");
+            case "MIDDLEGAME" -> fromDiagram("""
+                    |r| | | |k| | |r|
+                    |p| |p|p|q|p|b| |
+                    |b|n| | |p|n|p| |
+                    | | | |P|N| | | |
+                    | |p| | |P| | | |
+                    | | |N| | |Q| |p|
+                    |P|P|P|B|B|P|P|P|
+                    |R| | | |K| | |R|
+                    """, ChessGame.TeamColor.WHITE);
+            case "ENDGAME" -> fromDiagram("""
+                    | | | | | | | | |
+                    | | |p| | | | | |
+                    | | | |p| | | | |
+                    |K|P| | | | | |r|
+                    | |R| | | |p| |k|
+                    | | | | | | | | |
+                    | | | | |P| |P| |
+                    | | | | | | | | |
+                    """, ChessGame.TeamColor.WHITE);
+            case "CHECKMATE" -> play(new ChessGame(), "f2f3", "e7e5", "g2g4", "d8h4");
+            case "STALEMATE" -> fromDiagram("""
+                    |k| | | | | | | |
+                    | | | | | | | | |
+                    | |Q| | | | | | |
+                    | | | | | | | | |
+                    | | | | | | | | |
+                    | | | | | | | | |
+                    | | | | | | | | |
+                    | | | | | | | |K|
+                    """, ChessGame.TeamColor.BLACK);
+            default -> throw new IllegalArgumentException("Unknown position: " + name);
+        };
+    }
+
+    /**
+     * Builds a game from an 8-row board diagram, row 8 first, in the same
+     * {@code |r|n|b|...} layout the passoff tests use.
+     */
+    public static ChessGame fromDiagram(String diagram, ChessGame.TeamColor turn) {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int column = 1;
+        for (char c : diagram.toCharArray()) {
+            switch (c) {
+                case '\n' -> {
+                    column = 1;
+                    row--;
+                }
+                case ' ' -> column++;
+                case '|' -> {
+                }
+                default -> {
+                    ChessGame.TeamColor color = Character.isLowerCase(c)
+                            ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+                    ChessPiece.PieceType type = CHAR_TO_TYPE.get(Character.toLowerCase(c));
+                    board.addPiece(ChessPosition.of(row, column), ChessPiece.of(color, type));
+                    column++;
+                }
+            }
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(turn);
+        return game;
+    }
+
+    /**
+     * Plays moves written as start and end squares, e.g. {@code e2e4}.
+     */
+    public static ChessGame play(ChessGame game, String... moves) {
+        for (String move : moves) {
+            try {
+                game.makeMove(parseMove(move));
+            } catch (InvalidMoveException e) {
+                throw new IllegalArgumentException("Illegal move " + move, e);
+            }
+        }
+        return game;
+    }
+
+    public static ChessMove parseMove(String move) {
+        ChessPosition start = ChessPosition.of(move.charAt(1) - '0', move.charAt(0) - 'a' + 1);
+        ChessPosition end = ChessPosition.of(move.charAt(3) - '0', move.charAt(2) - 'a' + 1);
+        return new ChessMove(start, end, null);
+    }
+}
@@ -0,0 +1,74 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lazy SMP scaling: the same fixed-depth search at 1, 2, 4 and 8 threads,
+ * and at one thread per available processor ("N"). {@code timeToDepth} is
+ * the wall-clock time to finish the depth; {@code nodesPerSecond} reports
+ * the total node rate of all threads through its {@code nodes} counter.
+ * The transposition table is cleared before every search.
+ */
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SmpScalingBenchmark {
+
+    @Param({"1", "2", "4", "8", "N"})
+    public String threads;
+
+    @Param({"MIDDLEGAME"})
+    public String position;
+
+    @Param({"6"})
+    public int depth;
+
+    private Engine engine;
+    private ChessGame game;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        int count = threads.equals("N") ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(threads);
+        engine = new Engine(count);
+        game = Positions.named(position);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        engine.newGame();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SearchResult timeToDepth() {
+        return engine.search(game, SearchLimits.depth(depth));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public SearchResult nodesPerSecond(Nodes counter) {
+        SearchResult result = engine.search(game, SearchLimits.depth(depth));
+        counter.nodes += result.nodes();
+        return result;
+    }
+}
@@ -0,0 +1,46 @@
+package benchmarks;
+
+import chess.tablebase.Material;
+import chess.tablebase.TablebaseGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to generate one table from scratch, on one thread and on one thread
+ * per available processor ("N"). KPK includes generating the KQK and KRK
+ * tables it promotes into.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class TablebaseGenerationBenchmark {
+
+    @Param({"KQK", "KRK", "KPK", "KBNK"})
+    public String material;
+
+    @Param({"1", "N"})
+    public String threads;
+
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        int count = threads.equals("N") ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(threads);
+        pool = new ForkJoinPool(count);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public byte[] generate() {
+        return new TablebaseGenerator(pool).generate(Material.valueOf(material));
+    }
+}
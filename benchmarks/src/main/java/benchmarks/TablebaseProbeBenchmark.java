@@ -0,0 +1,96 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.tablebase.Material;
+import chess.tablebase.Tablebase;
+import chess.tablebase.TablebaseGenerator;
+import chess.tablebase.TablebaseResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Latency of one tablebase probe, cycling through random positions of the
+ * ending so lookups are spread over the whole memory-mapped file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TablebaseProbeBenchmark {
+
+    private static final int POSITIONS = 4096;
+
+    @Param({"KQK", "KPK", "KBNK"})
+    public String material;
+
+    private Path directory;
+    private Tablebase tablebase;
+    private final ChessBoard[] boards = new ChessBoard[POSITIONS];
+    private final ChessGame.TeamColor[] toMove = new ChessGame.TeamColor[POSITIONS];
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        Material ending = Material.valueOf(material);
+        directory = Files.createTempDirectory("tablebase");
+        new TablebaseGenerator().write(ending, directory);
+        tablebase = Tablebase.open(directory);
+
+        Random random = new Random(42);
+        for (int i = 0; i < POSITIONS; ) {
+            ChessBoard board = randomBoard(random, ending);
+            ChessGame.TeamColor turn = random.nextBoolean() ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            if (tablebase.probe(board, turn) != null) {
+                boards[i] = board;
+                toMove[i++] = turn;
+            }
+        }
+    }
+
+    private static ChessBoard randomBoard(Random random, Material ending) {
+        ChessBoard board = new ChessBoard();
+        ChessPiece.PieceType[] extras = ending.extras();
+        ChessPiece.PieceType[] types = new ChessPiece.PieceType[2 + extras.length];
+        types[0] = ChessPiece.PieceType.KING;
+        types[1] = ChessPiece.PieceType.KING;
+        System.arraycopy(extras, 0, types, 2, extras.length);
+        long used = 0;
+        for (int i = 0; i < types.length; i++) {
+            int square;
+            do {
+                square = types[i] == ChessPiece.PieceType.PAWN ? 8 + random.nextInt(48) : random.nextInt(64);
+            } while ((used & 1L << square) != 0);
+            used |= 1L << square;
+            ChessGame.TeamColor color = i == 1 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            board.addPiece(ChessPosition.fromSquare(square), ChessPiece.of(color, types[i]));
+        }
+        return board;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public TablebaseResult probe() {
+        int i = next++ & POSITIONS - 1;
+        return tablebase.probe(boards[i], toMove[i]);
+    }
+}
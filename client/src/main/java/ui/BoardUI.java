@@ -58,8 +58,8 @@ public class BoardUI {
     // ---------------- UTILS ----------------
 
     private static void printSquare(ChessBoard board, int row, int col, Collection<ChessPosition> highlightedPositions) {
-        var piece = board.getPiece(new ChessPosition(row, col));
-        ChessPosition currentPosition = new ChessPosition(row, col);
+        ChessPosition currentPosition = ChessPosition.of(row, col);
+        var piece = board.getPiece(currentPosition);
 
         boolean lightSquare = ((row + col) % 2 == 0);
         String bg = lightSquare ? EscapeSequences.LIGHT_BG : EscapeSequences.DARK_BG;
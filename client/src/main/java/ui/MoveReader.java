@@ -49,7 +49,7 @@ public class MoveReader {
     private ChessPosition parsePosition(String pos) {
         char file = pos.charAt(0);
         int rank = Character.getNumericValue(pos.charAt(1));
-        return new ChessPosition(rank, file - 'a' + 1);
+        return ChessPosition.of(rank, file - 'a' + 1);
     }
 
     public ChessPosition readPosition(String prompt) {
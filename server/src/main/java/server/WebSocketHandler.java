@@ -88,6 +88,14 @@ public class WebSocketHandler {
         return start + " to " + end;
     }
 
+    private String drawReason(ChessGame.GameStatus status) {
+        return switch (status) {
+            case THREEFOLD_REPETITION -> "threefold repetition";
+            case FIFTY_MOVE_RULE -> "the fifty-move rule";
+            default -> "insufficient material";
+        };
+    }
+
     private void handleLeave(WsMessageContext ctx, UserGameCommand cmd) {
         String authToken = cmd.getAuthToken();
         Integer gameID = cmd.getGameID();
@@ -232,7 +240,7 @@ public class WebSocketHandler {
             GameData updatedGame = gameService.getGameById(gameID);
             JsonObject loadGame = new JsonObject();
             loadGame.addProperty("serverMessageType", "LOAD_GAME");
-            loadGame.add("game", GSON.toJsonTree(updatedGame));
+            loadGame.add("game", GSON.toJsonTree(updatedGame.withSnapshot()));
             ctx.send(GSON.toJson(loadGame));
 
             SESSION_TO_GAME.put(ctx.sessionId(), gameID);
@@ -309,7 +317,7 @@ public class WebSocketHandler {
 
             JsonObject loadGame = new JsonObject();
             loadGame.addProperty("serverMessageType", "LOAD_GAME");
-            loadGame.add("game", GSON.toJsonTree(updatedGameData.game()));
+            loadGame.add("game", GSON.toJsonTree(chess.snapshot().toGame()));
 
             String baseMessage = String.format("%s played %s", username, moveDescription);
             String messageSuffix = "";
@@ -319,20 +327,27 @@ public class WebSocketHandler {
                                 updatedGameData.whiteUsername() :
                                 updatedGameData.blackUsername();
 
-            if (chess.isInCheckmate(oppColor)) {
-                messageSuffix = String.format(" Game over! %s is in checkmate. %s wins!",
-                        oppUsername,
-                        username);
-                chess.setGameOver(true);
-                gameService.updateGame(updatedGameData);
-
-            } else if (chess.isInCheck(oppColor)) {
-                messageSuffix = String.format(" %s is in check!", oppUsername);
-
-            } else if (chess.isInStalemate(oppColor)) {
-                messageSuffix = " Game over! It's a stalemate.";
-                chess.setGameOver(true);
-                gameService.updateGame(updatedGameData);
+            switch (chess.getGameStatus()) {
+                case CHECKMATE -> {
+                    messageSuffix = String.format(" Game over! %s is in checkmate. %s wins!",
+                            oppUsername,
+                            username);
+                    chess.setGameOver(true);
+                    gameService.updateGame(updatedGameData);
+                }
+                case CHECK -> messageSuffix = String.format(" %s is in check!", oppUsername);
+                case STALEMATE -> {
+                    messageSuffix = " Game over! It's a stalemate.";
+                    chess.setGameOver(true);
+                    gameService.updateGame(updatedGameData);
+                }
+                case THREEFOLD_REPETITION, FIFTY_MOVE_RULE, INSUFFICIENT_MATERIAL -> {
+                    messageSuffix = " Game over! It's a draw by " + drawReason(chess.getGameStatus()) + ".";
+                    chess.setGameOver(true);
+                    gameService.updateGame(updatedGameData);
+                }
+                default -> {
+                }
             }
 
             JsonObject moveNotif = new JsonObject();
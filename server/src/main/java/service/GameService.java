@@ -44,8 +44,9 @@ public class GameService {
         if (auth == null) {
             throw new DataAccessException("unauthorized");
         }
-        List<GameData> games;
-        games = dataAccess.listGames();
+        List<GameData> games = dataAccess.listGames().stream()
+                .map(GameData::withSnapshot)
+                .toList();
 
         return new ListGamesResult(games);
     }
@@ -1,65 +1,362 @@
 package chess;
 
+import chess.moves.AttackTables;
+import chess.moves.Move;
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * The board is stored as bitboards: one 64-bit word per piece type and color,
+ * plus an occupancy word per color. Square indexes follow
+ * {@link ChessPosition#getSquare()}, so a1 is bit 0 and h8 is bit 63. A
+ * mailbox array mirrors the bitboards so {@link #getPiece} stays a single load.
+ * <p>
+ * Every placement change also updates a {@link Zobrist} key, so hashing and
+ * equality checks do not have to walk the board, and the material and
+ * {@link PieceSquareTables} scores, so evaluation does not either.
+ * <p>
+ * Castling rights and the en passant square live in one packed state word:
+ * bits 0-3 are the castling rights still unspent and bits 4-9 the square a
+ * pawn skipped over on the last move (0 when there is none). A right is only
+ * usable while its king and rook are also on their starting squares, so a
+ * board built up with {@link #addPiece} can castle without further setup.
  */
+@JsonAdapter(ChessBoardAdapter.class)
 public class ChessBoard {
 
-    ChessPiece[][] squares = new ChessPiece[8][8];
+    private final long[] pieceBoards = new long[12];
+    private final long[] colorBoards = new long[2];
+    private long occupied;
+    private final ChessPiece[] mailbox = new ChessPiece[64];
+    private long placementKey;
+    private int state = ALL_CASTLING;
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    private static final int ALL_CASTLING = 15;
+
+    private static final int STATE_BITS = 10;
+    private static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+    private static final int UNDO_STATE_SHIFT = 23;
+
+    /**
+     * Rights that survive a move from or to each square; moving the king or a
+     * rook, or capturing a rook at home, clears the matching rights.
+     */
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[63] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[56] &= ~BLACK_QUEENSIDE;
+    }
+
     public ChessBoard() {
 
     }
 
+    /**
+     * Index of a piece's bitboard: six piece types per color, white first.
+     */
+    public static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
      * @param position where to add the piece to
      * @param piece    the piece to add
      */
-    private ChessPosition whiteKingSpot;
-    private ChessPosition blackKingSpot;
-
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow()-1][position.getColumn()-1] = piece;
+        int square = position.getSquare();
+        removeAt(square);
+        if (piece != null) {
+            placeAt(square, piece);
+        }
+    }
 
-        if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING) {
-            if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) {
-                    whiteKingSpot = position;
-            }
-            else {
-                blackKingSpot = position;
-            }
+    private void removeAt(int square) {
+        ChessPiece old = mailbox[square];
+        if (old == null) {
+            return;
         }
+        long bit = 1L << square;
+        int piece = pieceIndex(old.getTeamColor(), old.getPieceType());
+        pieceBoards[piece] &= ~bit;
+        colorBoards[old.getTeamColor().ordinal()] &= ~bit;
+        occupied &= ~bit;
+        mailbox[square] = null;
+        placementKey ^= Zobrist.piece(old, square);
+        middlegameScore -= PieceSquareTables.middlegame(piece, square);
+        endgameScore -= PieceSquareTables.endgame(piece, square);
+        phase -= PieceSquareTables.phaseWeight(old.getPieceType());
     }
 
-    public ChessPosition getKingSpot(ChessGame.TeamColor color) {
-        if (color == ChessGame.TeamColor.WHITE) {
-            return whiteKingSpot;
+    private void placeAt(int square, ChessPiece piece) {
+        long bit = 1L << square;
+        int index = pieceIndex(piece.getTeamColor(), piece.getPieceType());
+        pieceBoards[index] |= bit;
+        colorBoards[piece.getTeamColor().ordinal()] |= bit;
+        occupied |= bit;
+        mailbox[square] = piece;
+        placementKey ^= Zobrist.piece(piece, square);
+        middlegameScore += PieceSquareTables.middlegame(index, square);
+        endgameScore += PieceSquareTables.endgame(index, square);
+        phase += PieceSquareTables.phaseWeight(piece.getPieceType());
+    }
+
+    /**
+     * Plays a move on the board without checking that it is legal, and
+     * returns an undo record that {@link #unmakeMove(long)} uses to take it
+     * back. The start square must hold a piece.
+     *
+     * @param move the move to play
+     * @return the undo record for this move
+     */
+    public long makeMove(ChessMove move) {
+        return makeMove(Move.fromChessMove(move));
+    }
+
+    /**
+     * Plays a packed {@link Move} without checking that it is legal. A king
+     * moving two files castles and a pawn moving onto the en passant square
+     * captures en passant, whether or not the move carries those flags.
+     * <p>
+     * The undo record keeps the move's squares and promotion in bits 0-14,
+     * exactly as {@link Move} lays them out, then the moved piece (bits
+     * 15-18), the captured piece (bits 19-22, zero when nothing was
+     * captured) and the state word from before the move (bits 23-32).
+     *
+     * @param move the packed move to play
+     * @return the undo record for this move
+     */
+    public long makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece moving = mailbox[from];
+        ChessPiece.PieceType type = moving.getPieceType();
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        ChessGame.TeamColor color = moving.getTeamColor();
+
+        int capturedSquare = to;
+        if (type == ChessPiece.PieceType.PAWN && isEnPassantTarget(to, state) && mailbox[to] == null) {
+            // the captured pawn is beside the start square, one rank back from the target
+            capturedSquare = to ^ 8;
         }
-        else {
-            return blackKingSpot;
+        ChessPiece captured = mailbox[capturedSquare];
+
+        long undo = Move.identity(move)
+                | (long) pieceIndex(color, type) << 15
+                | (long) (captured == null ? 0 : pieceIndex(captured.getTeamColor(), captured.getPieceType()) + 1) << 19
+                | (long) state << UNDO_STATE_SHIFT;
+
+        removeAt(from);
+        removeAt(capturedSquare);
+        placeAt(to, promotion == null ? moving : ChessPiece.of(color, promotion));
+        if (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            moveCastlingRook(from, to, true);
         }
+
+        int castling = state & CASTLING_MASK[from] & CASTLING_MASK[to];
+        int enPassant = type == ChessPiece.PieceType.PAWN && Math.abs(to - from) == 16 ? (from + to) >>> 1 : 0;
+        state = castling | enPassant << 4;
+        return undo;
     }
 
-    public ChessBoard deepCopy() {
-        ChessBoard copyBoard = new ChessBoard();
+    /**
+     * Takes back a move played by {@link #makeMove(int)}. Moves must be
+     * unmade in the reverse order they were made.
+     *
+     * @param undo the record returned when the move was made
+     */
+    public void unmakeMove(long undo) {
+        int from = (int) (undo & 63);
+        int to = (int) (undo >>> 6 & 63);
+        int moved = (int) (undo >>> 15 & 15);
+        int captured = (int) (undo >>> 19 & 15);
+        int previousState = (int) (undo >>> UNDO_STATE_SHIFT) & ((1 << STATE_BITS) - 1);
+        ChessPiece.PieceType type = ChessPiece.fromIndex(moved).getPieceType();
+
+        removeAt(to);
+        placeAt(from, ChessPiece.fromIndex(moved));
+        if (captured != 0) {
+            boolean enPassant = type == ChessPiece.PieceType.PAWN && isEnPassantTarget(to, previousState);
+            placeAt(enPassant ? to ^ 8 : to, ChessPiece.fromIndex(captured - 1));
+        }
+        if (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            moveCastlingRook(from, to, false);
+        }
+        state = previousState;
+    }
 
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition pos = new ChessPosition(row, col);
-                ChessPiece piece = this.getPiece(pos);
+    private static boolean isEnPassantTarget(int square, int state) {
+        // 0 means no en passant square, since a1 can never be one
+        int enPassant = state >>> 4;
+        return enPassant != 0 && square == enPassant;
+    }
 
-                if (piece != null) {
-                    copyBoard.addPiece(pos, new ChessPiece(piece.getTeamColor(), piece.getPieceType()));
-                }
-            }
+    private void moveCastlingRook(int kingFrom, int kingTo, boolean forward) {
+        int rookHome = kingTo > kingFrom ? kingTo + 1 : kingTo - 2;
+        int rookCastled = (kingFrom + kingTo) >>> 1;
+        int rookFrom = forward ? rookHome : rookCastled;
+        ChessPiece rook = mailbox[rookFrom];
+        if (rook == null) {
+            return;
+        }
+        removeAt(rookFrom);
+        placeAt(forward ? rookCastled : rookHome, rook);
+    }
+
+    /**
+     * Gets the castling rights that can still be used: a right from the
+     * state word whose king and rook are still on their starting squares.
+     * This says nothing about whether the squares between are empty or safe.
+     *
+     * @return a combination of {@link #WHITE_KINGSIDE}, {@link #WHITE_QUEENSIDE},
+     * {@link #BLACK_KINGSIDE} and {@link #BLACK_QUEENSIDE}
+     */
+    public int castlingRights() {
+        int rights = state & ALL_CASTLING;
+        if (rights == 0) {
+            return 0;
+        }
+        long whiteRooks = pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        long blackRooks = pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        if ((pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING) & 1L << 4) == 0) {
+            rights &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        }
+        if ((whiteRooks & 1L << 7) == 0) {
+            rights &= ~WHITE_KINGSIDE;
+        }
+        if ((whiteRooks & 1L) == 0) {
+            rights &= ~WHITE_QUEENSIDE;
+        }
+        if ((pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING) & 1L << 60) == 0) {
+            rights &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        }
+        if ((blackRooks & 1L << 63) == 0) {
+            rights &= ~BLACK_KINGSIDE;
         }
+        if ((blackRooks & 1L << 56) == 0) {
+            rights &= ~BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    /**
+     * Gets the square a pawn skipped over with a double step on the last
+     * move, but only when an enemy pawn stands ready to capture onto it.
+     * Legality of that capture is left to the move generator.
+     *
+     * @return the en passant target square index, or -1 if there is none
+     */
+    public int enPassantSquare() {
+        int square = state >>> 4;
+        if (square == 0) {
+            return -1;
+        }
+        // rank 6 is a black pawn's skipped square, so white captures there
+        ChessGame.TeamColor capturer = square >= 32 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        boolean victimPresent = (pieces(capturer.opponent(), ChessPiece.PieceType.PAWN) & 1L << (square ^ 8)) != 0;
+        boolean capturerPresent =
+                (AttackTables.pawn(capturer.opponent(), square) & pieces(capturer, ChessPiece.PieceType.PAWN)) != 0;
+        return victimPresent && capturerPresent ? square : -1;
+    }
+
+    /**
+     * @return the packed castling and en passant state word
+     */
+    int state() {
+        return state;
+    }
+
+    void setState(int state) {
+        this.state = state & ((1 << STATE_BITS) - 1);
+    }
+
+    /**
+     * Determines if any piece of the given color attacks a square. Rather
+     * than generating the attacker's moves, this looks outward from the
+     * square: knight and king jumps, pawn diagonals, and rook and bishop
+     * rays, each checked against the attacker's matching bitboard.
+     *
+     * @param square  square index from 0 (a1) to 63 (h8)
+     * @param byColor the attacking team
+     * @return True if a piece of that team attacks the square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        if ((AttackTables.knight(square) & pieces(byColor, ChessPiece.PieceType.KNIGHT)) != 0) {
+            return true;
+        }
+        if ((AttackTables.king(square) & pieces(byColor, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+        // a pawn attacks this square exactly when a pawn of the other color
+        // standing here would attack the pawn's square
+        if ((AttackTables.pawn(byColor.opponent(), square) & pieces(byColor, ChessPiece.PieceType.PAWN)) != 0) {
+            return true;
+        }
+        long queens = pieces(byColor, ChessPiece.PieceType.QUEEN);
+        long rooks = pieces(byColor, ChessPiece.PieceType.ROOK) | queens;
+        if ((AttackTables.rook(square, occupied) & rooks) != 0) {
+            return true;
+        }
+        long bishops = pieces(byColor, ChessPiece.PieceType.BISHOP) | queens;
+        return (AttackTables.bishop(square, occupied) & bishops) != 0;
+    }
+
+    /**
+     * Gets every piece of the given color that attacks a square, treating
+     * {@code occupied} as the blockers for sliding pieces. Passing an
+     * occupancy other than the board's lets callers ask what would attack
+     * the square once a piece has moved away.
+     *
+     * @return bitboard of the attacking pieces
+     */
+    public long attackersTo(int square, ChessGame.TeamColor byColor, long occupied) {
+        long queens = pieces(byColor, ChessPiece.PieceType.QUEEN);
+        return (AttackTables.knight(square) & pieces(byColor, ChessPiece.PieceType.KNIGHT))
+                | (AttackTables.king(square) & pieces(byColor, ChessPiece.PieceType.KING))
+                | (AttackTables.pawn(byColor.opponent(), square) & pieces(byColor, ChessPiece.PieceType.PAWN))
+                | (AttackTables.rook(square, occupied) & (pieces(byColor, ChessPiece.PieceType.ROOK) | queens))
+                | (AttackTables.bishop(square, occupied) & (pieces(byColor, ChessPiece.PieceType.BISHOP) | queens));
+    }
+
+    public ChessPosition getKingSpot(ChessGame.TeamColor color) {
+        long kings = pieces(color, ChessPiece.PieceType.KING);
+        if (kings == 0) {
+            return null;
+        }
+        return ChessPosition.fromSquare(Long.numberOfTrailingZeros(kings));
+    }
+
+    public ChessBoard deepCopy() {
+        ChessBoard copyBoard = new ChessBoard();
+        System.arraycopy(pieceBoards, 0, copyBoard.pieceBoards, 0, pieceBoards.length);
+        System.arraycopy(colorBoards, 0, copyBoard.colorBoards, 0, colorBoards.length);
+        System.arraycopy(mailbox, 0, copyBoard.mailbox, 0, mailbox.length);
+        copyBoard.occupied = occupied;
+        copyBoard.placementKey = placementKey;
+        copyBoard.state = state;
+        copyBoard.middlegameScore = middlegameScore;
+        copyBoard.endgameScore = endgameScore;
+        copyBoard.phase = phase;
         return copyBoard;
     }
 
@@ -71,7 +368,110 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow()-1][position.getColumn()-1];
+        return mailbox[position.getSquare()];
+    }
+
+    /**
+     * @return the piece on a square index, or null if the square is empty
+     */
+    public ChessPiece pieceAt(int square) {
+        return mailbox[square];
+    }
+
+    /**
+     * @return bitboard of every piece of the given color and type
+     */
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceBoards[pieceIndex(color, type)];
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given color
+     */
+    public long occupancy(ChessGame.TeamColor color) {
+        return colorBoards[color.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long occupied() {
+        return occupied;
+    }
+
+    /**
+     * Gets the Zobrist key of the position: the piece placement, which every
+     * {@link #addPiece} call keeps up to date, mixed with the usable castling
+     * rights and en passant square. Reading it is O(1).
+     *
+     * @return 64-bit hash of the pieces and rights on this board
+     */
+    public long zobristKey() {
+        long key = placementKey ^ Zobrist.castling(castlingRights());
+        int enPassant = enPassantSquare();
+        if (enPassant >= 0) {
+            key ^= Zobrist.enPassant(enPassant & 7);
+        }
+        return key;
+    }
+
+    /**
+     * @return material plus middlegame piece-square score, white minus black
+     */
+    public int middlegameScore() {
+        return middlegameScore;
+    }
+
+    /**
+     * @return material plus endgame piece-square score, white minus black
+     */
+    public int endgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * @return the game phase, {@link PieceSquareTables#MAX_PHASE} with all
+     * pieces on the board and 0 with only kings and pawns
+     */
+    public int phase() {
+        return phase;
+    }
+
+    /**
+     * Gets the piece-square evaluation blended for the game phase. Every
+     * term is kept up to date as pieces move, so this is O(1).
+     *
+     * @return centipawns from white's point of view
+     */
+    public int pieceSquareScore() {
+        return PieceSquareTables.taper(middlegameScore, endgameScore, phase);
+    }
+
+    /**
+     * Determines if neither side can ever checkmate: only the kings remain,
+     * with at most one knight or bishop, or with bishops that all stand on
+     * squares of one color.
+     *
+     * @return True if the position is a dead draw for lack of material
+     */
+    public boolean hasInsufficientMaterial() {
+        long mating = 0;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            mating |= pieces(color, ChessPiece.PieceType.PAWN)
+                    | pieces(color, ChessPiece.PieceType.ROOK)
+                    | pieces(color, ChessPiece.PieceType.QUEEN);
+        }
+        if (mating != 0) {
+            return false;
+        }
+        long knights = pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT)
+                | pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        long bishops = pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP)
+                | pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+        return knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0);
     }
 
 
@@ -80,44 +480,52 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        //board arrary
-        squares = new ChessPiece[8][8];
+        Arrays.fill(pieceBoards, 0L);
+        Arrays.fill(colorBoards, 0L);
+        Arrays.fill(mailbox, null);
+        occupied = 0L;
+        placementKey = 0L;
+        state = ALL_CASTLING;
+        middlegameScore = 0;
+        endgameScore = 0;
+        phase = 0;
 
         //White pieces
         for (int i = 1; i <= 8; i++){
-            addPiece(new ChessPosition(2, i), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, i), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
         }
-        addPiece(new ChessPosition(1,1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1,2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1,3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1,4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1,5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1,6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1,7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1,8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1,1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1,2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1,3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1,4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1,5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1,6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1,7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1,8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
 
 
         //Black pieces
         for (int i = 1; i <= 8; i++){
-            addPiece(new ChessPosition(7, i), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, i), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
-        addPiece(new ChessPosition(8,1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8,2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8,3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8,4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8,5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8,6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8,7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8,8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8,1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8,2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8,3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8,4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8,5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8,6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8,7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8,8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
 
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("ChessBoard{\n");
-        for (ChessPiece[] square : squares) {
+        for (int row = 0; row < 8; row++) {
             sb.append("[");
-            for (ChessPiece piece : square) {
+            for (int col = 0; col < 8; col++) {
+                ChessPiece piece = mailbox[row * 8 + col];
                 sb.append(piece == null ? " ." : " " + piece);
             }
             sb.append(" ]\n");
@@ -135,21 +543,12 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece p1 = this.squares[row][col];
-                ChessPiece p2 = that.squares[row][col];
-                if (!Objects.equals(p1, p2)) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return placementKey == that.placementKey && Arrays.equals(pieceBoards, that.pieceBoards)
+                && castlingRights() == that.castlingRights() && enPassantSquare() == that.enPassantSquare();
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(zobristKey());
     }
 }
@@ -0,0 +1,106 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes a {@link ChessBoard} in the 8x8 {@code squares} layout that
+ * games have always been stored in, so persisted games and clients are not
+ * affected by the bitboard representation. The castling and en passant state
+ * word is written alongside as {@code state}; boards stored before it existed
+ * read back with every castling right and no en passant square.
+ */
+public class ChessBoardAdapter extends TypeAdapter<ChessBoard> {
+
+    @Override
+    public void write(JsonWriter out, ChessBoard board) throws IOException {
+        if (board == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("squares");
+        out.beginArray();
+        for (int row = 1; row <= 8; row++) {
+            out.beginArray();
+            for (int col = 1; col <= 8; col++) {
+                writePiece(out, board.getPiece(ChessPosition.of(row, col)));
+            }
+            out.endArray();
+        }
+        out.endArray();
+        out.name("state").value(board.state());
+        out.endObject();
+    }
+
+    private void writePiece(JsonWriter out, ChessPiece piece) throws IOException {
+        if (piece == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("pieceColor").value(piece.getTeamColor().name());
+        out.name("type").value(piece.getPieceType().name());
+        out.endObject();
+    }
+
+    @Override
+    public ChessBoard read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ChessBoard board = new ChessBoard();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "squares" -> readSquares(in, board);
+                case "state" -> board.setState(in.nextInt());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return board;
+    }
+
+    private void readSquares(JsonReader in, ChessBoard board) throws IOException {
+        in.beginArray();
+        for (int row = 1; in.hasNext(); row++) {
+            in.beginArray();
+            for (int col = 1; in.hasNext(); col++) {
+                ChessPiece piece = readPiece(in);
+                if (piece != null) {
+                    board.addPiece(ChessPosition.of(row, col), piece);
+                }
+            }
+            in.endArray();
+        }
+        in.endArray();
+    }
+
+    private ChessPiece readPiece(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ChessGame.TeamColor color = null;
+        ChessPiece.PieceType type = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "pieceColor" -> color = ChessGame.TeamColor.valueOf(in.nextString());
+                case "type" -> type = ChessPiece.PieceType.valueOf(in.nextString());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (color == null || type == null) {
+            return null;
+        }
+        return ChessPiece.of(color, type);
+    }
+}
@@ -1,9 +1,18 @@
 package chess;
 
+import chess.moves.LegalMoveGenerator;
+import chess.moves.Move;
+import chess.moves.MoveList;
+import com.google.gson.annotations.JsonAdapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -11,15 +20,76 @@ import java.util.Set;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessGameAdapter.class)
 public class ChessGame {
 
+    private static final long UNDO_BLACK_TO_MOVE = 1L << 63;
+    private static final long[] NO_HISTORY = new long[0];
+    private static final int FIFTY_MOVES = 100;
+
     private TeamColor teamTurn;
     private ChessBoard board;
     private boolean gameOver = false;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    // keys of the positions since the last pawn move or capture, oldest first;
+    // replaced rather than modified, so copies of a game can share it
+    private long[] history = NO_HISTORY;
+    // the status depends on the clock and history as well as the position,
+    // so it is cached against all three; history arrays are never modified,
+    // so comparing references is enough
+    private transient GameStatus status;
+    private transient long statusKey;
+    private transient int statusClock;
+    private transient long[] statusHistory;
+    private final transient LegalMoveCache[] legalMoveCache = {new LegalMoveCache(), new LegalMoveCache()};
+    // replaced after every public change, never during trial moves
+    private transient volatile PositionSnapshot snapshot;
+    private transient long version;
+
     public ChessGame() {
         board = new ChessBoard();
         board.resetBoard();
-        setTeamTurn(TeamColor.WHITE);
+        teamTurn = TeamColor.WHITE;
+        publish();
+    }
+
+    ChessGame(ChessBoard board, TeamColor teamTurn, int halfmoveClock, int fullmoveNumber) {
+        this(board, teamTurn, halfmoveClock, fullmoveNumber, NO_HISTORY, false);
+    }
+
+    ChessGame(ChessBoard board, TeamColor teamTurn, int halfmoveClock, int fullmoveNumber, long[] history,
+              boolean gameOver) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        this.history = history;
+        this.gameOver = gameOver;
+        publish();
+    }
+
+    /**
+     * Creates a game from a position in Forsyth-Edwards Notation, such as
+     * {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1}.
+     * The move counters may be left off.
+     *
+     * @param fen the position
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame fromFen(String fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * Gets the position in Forsyth-Edwards Notation. Equal positions give
+     * equal strings, so this can serve as a compact key or storage form.
+     *
+     * @return the position as FEN
+     */
+    public String toFen() {
+        return Fen.format(this);
     }
 
     /**
@@ -36,10 +106,42 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         teamTurn = team;
+        publish();
     }
 
     public void setGameOver(boolean gameOver) {
         this.gameOver = gameOver;
+        publish();
+    }
+
+    /**
+     * Gets an immutable copy of the current position. A new one is published
+     * after every move and every change made through this class, so another
+     * thread can read or serialize the game through it while moves are being
+     * made, without locking. Trial moves made with
+     * {@link #makeMoveUnchecked(int)} are never published, and neither are
+     * edits made directly to the board from {@link #getBoard()}. Only the
+     * thread changing the game writes the reference; readers just load it.
+     *
+     * @return the latest published position
+     */
+    public PositionSnapshot snapshot() {
+        return snapshot;
+    }
+
+    private void publish() {
+        long key = positionKey();
+        GameStatus known = isStatusCurrent(key) ? status : null;
+        snapshot = new PositionSnapshot(board, teamTurn, halfmoveClock, fullmoveNumber, history, gameOver, known, key,
+                ++version);
+    }
+
+    boolean gameOverFlag() {
+        return gameOver;
+    }
+
+    long[] history() {
+        return history;
     }
 
     /**
@@ -52,6 +154,51 @@ public class ChessGame {
         public String toString() {
             return this == WHITE ? "white" : "black";
         }
+
+        /**
+         * @return the other team
+         */
+        public TeamColor opponent() {
+            return this == WHITE ? BLACK : WHITE;
+        }
+    }
+
+    /**
+     * The state of the game from the point of view of the team to move
+     */
+    public enum GameStatus {
+        ONGOING,
+        CHECK,
+        CHECKMATE,
+        STALEMATE,
+        RESIGNED,
+        /**
+         * The same position, with the same side to move, has occurred three times.
+         */
+        THREEFOLD_REPETITION,
+        /**
+         * Fifty moves by each side without a pawn move or a capture.
+         */
+        FIFTY_MOVE_RULE,
+        /**
+         * Neither side has enough material left to checkmate.
+         */
+        INSUFFICIENT_MATERIAL;
+
+        /**
+         * @return True if no more moves may be played
+         */
+        public boolean isTerminal() {
+            return this != ONGOING && this != CHECK;
+        }
+
+        /**
+         * @return True if the game ended without a winner
+         */
+        public boolean isDraw() {
+            return this == STALEMATE || this == THREEFOLD_REPETITION || this == FIFTY_MOVE_RULE
+                    || this == INSUFFICIENT_MATERIAL;
+        }
     }
 
     /**
@@ -64,26 +211,118 @@ public class ChessGame {
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
         ChessPiece thisPiece = board.getPiece(startPosition);
 
+        HashSet<ChessMove> validMoves = new HashSet<>();
+        if (thisPiece != null) {
+            int from = startPosition.getSquare();
+            MoveList moves = cachedLegalMoves(thisPiece.getTeamColor()).moves;
+            for (int i = 0; i < moves.size(); i++) {
+                if (Move.from(moves.get(i)) == from) {
+                    validMoves.add(Move.toChessMove(moves.get(i)));
+                }
+            }
+        }
+        return validMoves;
+    }
+
+    /**
+     * Gets every legal move for a team, whether or not it is that team's turn
+     *
+     * @param teamColor the team to get moves for
+     * @return every move the team's pieces can legally make
+     */
+    public Collection<ChessMove> legalMoves(TeamColor teamColor) {
+        return new ArrayList<>(allLegalMoves(teamColor));
+    }
+
+    /**
+     * Gets every legal move for a team in one pass. The result is cached
+     * until the board changes, so UIs and bots can ask repeatedly without
+     * regenerating.
+     *
+     * @param teamColor the team to get moves for
+     * @return an unmodifiable list of the team's legal moves
+     */
+    public List<ChessMove> allLegalMoves(TeamColor teamColor) {
+        LegalMoveCache cache = cachedLegalMoves(teamColor);
+        if (cache.chessMoves == null) {
+            List<ChessMove> chessMoves = new ArrayList<>(cache.moves.size());
+            cache.moves.addTo(chessMoves);
+            cache.chessMoves = List.copyOf(chessMoves);
+        }
+        return cache.chessMoves;
+    }
 
-        if (thisPiece == null) {
-            return new HashSet<>();
+    /**
+     * Counts a team's legal moves.
+     *
+     * @param teamColor the team to count moves for
+     * @return the number of legal moves
+     */
+    public int legalMoveCount(TeamColor teamColor) {
+        return legalMoveCount(teamColor, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Counts a team's legal moves, stopping once {@code limit} are found.
+     * Uses the cached moves when they are current, and otherwise counts
+     * without storing any moves.
+     *
+     * @param teamColor the team to count moves for
+     * @param limit     the most moves to count; 1 asks whether any move exists
+     * @return the number of legal moves, or {@code limit} if there are more
+     */
+    public int legalMoveCount(TeamColor teamColor, int limit) {
+        LegalMoveCache cache = legalMoveCache[teamColor.ordinal()];
+        if (cache.isCurrent(moveCacheKey(teamColor))) {
+            return Math.min(cache.moves.size(), limit);
         }
-        Collection<ChessMove> viableMoves = thisPiece.pieceMoves(board, startPosition);
-        HashSet<ChessMove> validMoves = new HashSet<>();
-        for (ChessMove move : viableMoves) {
-            ChessPiece target = board.getPiece(move.getEndPosition());
+        int[] count = new int[1];
+        LegalMoveGenerator.generate(board, teamColor, -1L, move -> ++count[0] < limit);
+        return count[0];
+    }
 
-            board.addPiece(startPosition, null);
-            board.addPiece(move.getEndPosition(), thisPiece);
-            if (!isInCheck(thisPiece.getTeamColor())) {
-                validMoves.add(move);
+    private LegalMoveCache cachedLegalMoves(TeamColor teamColor) {
+        LegalMoveCache cache = legalMoveCache[teamColor.ordinal()];
+        long key = moveCacheKey(teamColor);
+        if (!cache.isCurrent(key)) {
+            cache.moves.clear();
+            PositionMoveCache shared = PositionMoveCache.shared();
+            if (!shared.get(key, cache.moves)) {
+                LegalMoveGenerator.generate(board, teamColor, -1L, cache.moves);
+                shared.put(key, cache.moves);
             }
+            cache.chessMoves = null;
+            cache.key = key;
+            cache.valid = true;
+        }
+        return cache;
+    }
 
-            board.addPiece(move.getEndPosition(), target);
-            board.addPiece(startPosition, thisPiece);
+    /**
+     * Keys one team's legal moves. That team need not be the one to move,
+     * and the board key holds only the en passant file, so the rank is mixed
+     * in as well: with white to move and e6 as the en passant square, black's
+     * moves must not be taken for those of the same placement with black to
+     * move and e3 as the square.
+     */
+    private long moveCacheKey(TeamColor teamColor) {
+        long key = positionKey(teamColor);
+        int enPassant = board.enPassantSquare();
+        if (enPassant >= 0 && enPassant < 32) {
+            key ^= Zobrist.blackEnPassant();
         }
+        return key;
+    }
 
-        return validMoves;
+    /**
+     * Adds every legal move for a team to a caller-owned list as packed
+     * {@link Move} ints, for search code that should not allocate per move.
+     *
+     * @param teamColor the team to get moves for
+     * @param moves     the list to add to; it is not cleared first
+     */
+    public void legalMoves(TeamColor teamColor, MoveList moves) {
+        LegalMoveGenerator.generate(board, teamColor, -1L, moves);
     }
 
     /**
@@ -93,6 +332,9 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
+        if (!move.getStartPosition().isOnBoard() || !move.getEndPosition().isOnBoard()) {
+            throw new InvalidMoveException("Move is off the board");
+        }
         ChessPiece movingPiece = board.getPiece(move.getStartPosition());
 
         if (movingPiece == null) {
@@ -100,106 +342,160 @@ public class ChessGame {
         }
 
         boolean isTurn = getTeamTurn() == movingPiece.getTeamColor();
-        Collection<ChessMove> yesMoves = validMoves(move.getStartPosition());
-
-        if (yesMoves.contains(move) && isTurn) {
-            if (move.getPromotionPiece() != null) {
-                movingPiece = new ChessPiece(movingPiece.getTeamColor(), move.getPromotionPiece());
-            }
-
-            board.addPiece(move.getStartPosition(), null);
-            board.addPiece(move.getEndPosition(), movingPiece);
+        boolean isLegal = cachedLegalMoves(movingPiece.getTeamColor()).moves.contains(Move.fromChessMove(move));
 
-            // Switch turns
-            setTeamTurn(getTeamTurn() == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE);
+        if (isLegal && isTurn) {
+            recordHistory(move, movingPiece);
+            makeMoveUnchecked(move);
+            updateGameStatus();
+            publish();
         } else {
             throw new InvalidMoveException("Invalid move for this turn");
         }
     }
 
-
     /**
-     * Determines if the given team is in check
-     *
-     * @param teamColor which team to check for check
-     * @return True if the specified team is in check
+     * Advances the move counters and remembers the position being left, or
+     * forgets every earlier position when the move is a pawn move or
+     * capture, since none of them can occur again.
      */
-    public boolean isInCheck(TeamColor teamColor) {
-
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                if (canAttackKing(new ChessPosition(row, col), teamColor)) {
-                    return true;
-                }
-            }
+    private void recordHistory(ChessMove move, ChessPiece movingPiece) {
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber++;
+        }
+        boolean irreversible = movingPiece.getPieceType() == ChessPiece.PieceType.PAWN
+                || board.getPiece(move.getEndPosition()) != null;
+        if (irreversible) {
+            halfmoveClock = 0;
+            history = NO_HISTORY;
+        } else {
+            halfmoveClock++;
+            long[] longer = Arrays.copyOf(history, history.length + 1);
+            longer[history.length] = positionKey();
+            history = longer;
         }
-        return false;
     }
 
-    private boolean canAttackKing(ChessPosition pos, TeamColor kingColor) {
-        ChessPiece piece = board.getPiece(pos);
-        if (piece == null || piece.getTeamColor() == kingColor) {
-            return false;
-        }
+    /**
+     * @return the number of moves by either side since the last pawn move
+     * or capture
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current move, starting at 1 and going up
+     * after each of black's moves, as in FEN
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
 
-        for (ChessMove move : piece.pieceMoves(board, pos)) {
-            if (move.getEndPosition().equals(board.getKingSpot(kingColor))) {
-                return true;
+    /**
+     * Counts how many times the current position has occurred, including
+     * now, since the last pawn move or capture. Only position keys are
+     * compared, and only every other one, since the side to move must match.
+     *
+     * @return 1 for a position seen for the first time
+     */
+    public int repetitionCount() {
+        long key = positionKey();
+        int count = 1;
+        for (int i = history.length - 2; i >= 0; i -= 2) {
+            if (history[i] == key) {
+                count++;
             }
         }
-        return false;
+        return count;
     }
 
     /**
-     * Determines if the given team is in checkmate
+     * Gets the keys of the positions since the last pawn move or capture,
+     * as {@link #positionKey()} gave them, so a search can tell when a line
+     * repeats a position from before it started.
      *
-     * @param teamColor which team to check for checkmate
-     * @return True if the specified team is in checkmate
+     * @return the keys, oldest first, not including the current position
      */
-    public boolean isInCheckmate(TeamColor teamColor) {
-        if (!isInCheck(teamColor)) {
-            return false;
-        }
+    public long[] positionHistory() {
+        return history.clone();
+    }
 
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition pos = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(pos);
-                if (piece != null && piece.getTeamColor() == teamColor) {
-                    if (hasEscapingMove(piece, pos, teamColor)) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+    /**
+     * Plays a move and passes the turn without checking that the move is
+     * legal. Used for trial moves, where the caller takes the move back
+     * with {@link #unmakeMove(long)} instead of copying the board, so the
+     * halfmove clock and repetition history are left alone.
+     *
+     * @param move chess move to perform; its start square must hold a piece
+     * @return undo record for {@link #unmakeMove(long)}
+     */
+    public long makeMoveUnchecked(ChessMove move) {
+        return makeMoveUnchecked(Move.fromChessMove(move));
     }
 
-    private boolean hasEscapingMove(ChessPiece piece, ChessPosition pos, TeamColor teamColor) {
-        Collection<ChessMove> moves = validMoves(pos);
-        if (moves == null) {
-            return false;
+    /**
+     * Plays a packed {@link Move} and passes the turn without checking that
+     * the move is legal.
+     *
+     * @param move packed move to perform; its start square must hold a piece
+     * @return undo record for {@link #unmakeMove(long)}
+     */
+    public long makeMoveUnchecked(int move) {
+        long undo = board.makeMove(move);
+        if (teamTurn == TeamColor.BLACK) {
+            undo |= UNDO_BLACK_TO_MOVE;
         }
+        teamTurn = teamTurn.opponent();
+        return undo;
+    }
 
-        for (ChessMove move : moves) {
-            ChessBoard copyBoard = board.deepCopy();
-            ChessPiece movedPiece = new ChessPiece(piece.getTeamColor(),
-                    move.getPromotionPiece() != null ? move.getPromotionPiece() : piece.getPieceType());
-
-            copyBoard.addPiece(move.getStartPosition(), null);
-            copyBoard.addPiece(move.getEndPosition(), movedPiece);
+    /**
+     * Takes back a move played by {@link #makeMoveUnchecked(int)} and
+     * restores the side to move.
+     *
+     * @param undo the record returned when the move was made
+     */
+    public void unmakeMove(long undo) {
+        board.unmakeMove(undo & ~UNDO_BLACK_TO_MOVE);
+        teamTurn = (undo & UNDO_BLACK_TO_MOVE) != 0 ? TeamColor.BLACK : TeamColor.WHITE;
+    }
 
-            ChessGame copyGame = new ChessGame();
-            copyGame.setBoard(copyBoard);
 
-            if (!copyGame.isInCheck(teamColor)) {
-                return true;
-            }
+    /**
+     * Determines if the given team is in check
+     *
+     * @param teamColor which team to check for check
+     * @return True if the specified team is in check
+     */
+    public boolean isInCheck(TeamColor teamColor) {
+        long king = board.pieces(teamColor, ChessPiece.PieceType.KING);
+        if (king == 0) {
+            return false;
         }
-        return false;
+        return board.isSquareAttacked(Long.numberOfTrailingZeros(king), teamColor.opponent());
     }
 
+    /**
+     * Determines if any piece of the given team attacks a position
+     *
+     * @param position the position to test
+     * @param byColor  the attacking team
+     * @return True if the position is attacked by that team
+     */
+    public boolean isSquareAttacked(ChessPosition position, TeamColor byColor) {
+        return board.isSquareAttacked(position.getSquare(), byColor);
+    }
 
+    /**
+     * Determines if the given team is in checkmate
+     *
+     * @param teamColor which team to check for checkmate
+     * @return True if the specified team is in checkmate
+     */
+    public boolean isInCheckmate(TeamColor teamColor) {
+        return isInCheck(teamColor) && !hasAnyValidMove(teamColor);
+    }
 
     /**
      * Determines if the given team is in stalemate, which here is defined as having
@@ -209,43 +505,128 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        if (isInCheck(teamColor)) {
-            return false;
+        return !isInCheck(teamColor) && !hasAnyValidMove(teamColor);
+    }
+
+    public boolean isGameOver() {
+        return getGameStatus().isTerminal();
+    }
+
+    /**
+     * Gets the status of the game for the team to move. It is computed once
+     * after each move and cached against the position key, halfmove clock
+     * and repetition history, so repeated calls are O(1); a board edited
+     * through {@link #getBoard()} is picked up because its key changes, and
+     * one replaced with {@link #setBoard} because the history starts over.
+     *
+     * @return the current game status
+     */
+    public GameStatus getGameStatus() {
+        if (!isStatusCurrent(positionKey())) {
+            updateGameStatus();
+        }
+        if (gameOver && !status.isTerminal()) {
+            return GameStatus.RESIGNED;
         }
+        return status;
+    }
 
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                if (hasValidMovesForPosition(new ChessPosition(row, col), teamColor)) {
-                    return false;
-                }
-            }
+    /**
+     * Checkmate and stalemate come first, so a move that mates on the
+     * fiftieth move still wins. The draws by rule end the game at once
+     * rather than waiting for a player to claim them.
+     */
+    private void updateGameStatus() {
+        boolean inCheck = isInCheck(teamTurn);
+        boolean canMove = hasAnyValidMove(teamTurn);
+        if (!canMove) {
+            status = inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        } else if (board.hasInsufficientMaterial()) {
+            status = GameStatus.INSUFFICIENT_MATERIAL;
+        } else if (halfmoveClock >= FIFTY_MOVES) {
+            status = GameStatus.FIFTY_MOVE_RULE;
+        } else if (repetitionCount() >= 3) {
+            status = GameStatus.THREEFOLD_REPETITION;
+        } else {
+            status = inCheck ? GameStatus.CHECK : GameStatus.ONGOING;
         }
-        return true;
+        statusKey = positionKey();
+        statusClock = halfmoveClock;
+        statusHistory = history;
     }
 
-    public boolean isGameOver() {
-        return gameOver || isInCheckmate(TeamColor.WHITE) || isInCheckmate(TeamColor.BLACK)
-                || isInStalemate(TeamColor.WHITE) || isInStalemate(TeamColor.BLACK);
+    private boolean isStatusCurrent(long key) {
+        return status != null && statusKey == key && statusClock == halfmoveClock && statusHistory == history;
     }
 
+    private boolean hasAnyValidMove(TeamColor teamColor) {
+        return legalMoveCount(teamColor, 1) > 0;
+    }
 
-    private boolean hasValidMovesForPosition(ChessPosition pos, TeamColor teamColor) {
-        ChessPiece piece = board.getPiece(pos);
-        if (piece == null || piece.getTeamColor() != teamColor) {
-            return false;
-        }
+    /**
+     * Counts the leaf nodes of the legal move tree from the current
+     * position, to check the move generator against known counts.
+     *
+     * @param depth number of plies to search
+     * @return the number of move sequences of exactly that length
+     */
+    public long perft(int depth) {
+        return Perft.perft(this, depth);
+    }
+
+    /**
+     * Runs perft below each legal move of the side to move, to locate which
+     * subtree disagrees with a reference count.
+     *
+     * @param depth number of plies to search, including the root move
+     * @return the node count under each root move, in generation order
+     */
+    public Map<ChessMove, Long> divide(int depth) {
+        return Perft.divide(this, depth);
+    }
 
-        Collection<ChessMove> moves = validMoves(pos);
-        return moves != null && !moves.isEmpty();
+    /**
+     * Parallel perft that splits the root moves across the common fork-join
+     * pool. This game is left unchanged.
+     *
+     * @param depth number of plies to search
+     * @return the same count as {@link #perft(int)}
+     */
+    public long perftParallel(int depth) {
+        return perftParallel(depth, ForkJoinPool.commonPool());
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Parallel perft that splits the root moves across the given pool.
+     *
+     * @param depth number of plies to search
+     * @param pool  the pool to run the root subtrees on
+     * @return the same count as {@link #perft(int)}
+     */
+    public long perftParallel(int depth, ForkJoinPool pool) {
+        return Perft.perftParallel(this, depth, pool);
+    }
+
+    /**
+     * @return an independent copy of this game, with its own board
+     */
+    public ChessGame deepCopy() {
+        return new ChessGame(board.deepCopy(), teamTurn, halfmoveClock, fullmoveNumber, history, gameOver);
+    }
+
+    /**
+     * Sets this game's chessboard with a given board. Nothing is known about
+     * how the new position was reached, so the move counters and the
+     * repetition history start over.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        history = NO_HISTORY;
+        publish();
     }
 
     /**
@@ -257,6 +638,25 @@ public class ChessGame {
         return board;
     }
 
+    /**
+     * Gets a 64-bit key for the current position: the board's Zobrist key
+     * combined with the side to move. Equal positions always share a key, so
+     * it can be used to index caches or detect repeated positions in O(1).
+     *
+     * @return the position key
+     */
+    public long positionKey() {
+        return positionKey(teamTurn);
+    }
+
+    private long positionKey(TeamColor toMove) {
+        long key = board.zobristKey();
+        if (toMove == TeamColor.BLACK) {
+            key ^= Zobrist.sideToMove();
+        }
+        return key;
+    }
+
     public String toString() {
         return "ChessGame{" +
                 "teamTurn=" + teamTurn +
@@ -278,6 +678,24 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        return Objects.hash(teamTurn, board);
+        return Long.hashCode(positionKey());
+    }
+
+    /**
+     * One team's legal moves for the position with the given
+     * {@link #moveCacheKey} key. The key covers every piece, so any move or
+     * edit to the board invalidates it.
+     * On a miss the moves come from {@link PositionMoveCache#shared()} when
+     * another game has already seen the position.
+     */
+    private static final class LegalMoveCache {
+        private final MoveList moves = new MoveList();
+        private List<ChessMove> chessMoves;
+        private long key;
+        private boolean valid;
+
+        boolean isCurrent(long moveCacheKey) {
+            return valid && key == moveCacheKey;
+        }
     }
 }
@@ -0,0 +1,90 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads and writes a {@link ChessGame} with the same fields Gson has always
+ * written for it. Reading goes through a constructor rather than filling in
+ * fields one by one, so a game read from JSON has published its
+ * {@link PositionSnapshot} before anyone else can see it.
+ */
+public class ChessGameAdapter extends TypeAdapter<ChessGame> {
+
+    private final ChessBoardAdapter boardAdapter = new ChessBoardAdapter();
+
+    @Override
+    public void write(JsonWriter out, ChessGame game) throws IOException {
+        if (game == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        if (game.getTeamTurn() != null) {
+            out.name("teamTurn").value(game.getTeamTurn().name());
+        }
+        out.name("board");
+        boardAdapter.write(out, game.getBoard());
+        out.name("gameOver").value(game.gameOverFlag());
+        out.name("halfmoveClock").value(game.getHalfmoveClock());
+        out.name("fullmoveNumber").value(game.getFullmoveNumber());
+        out.name("history");
+        out.beginArray();
+        for (long key : game.history()) {
+            out.value(key);
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public ChessGame read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ChessGame.TeamColor teamTurn = ChessGame.TeamColor.WHITE;
+        ChessBoard board = null;
+        boolean gameOver = false;
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        long[] history = new long[0];
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "teamTurn" -> teamTurn = ChessGame.TeamColor.valueOf(in.nextString());
+                case "board" -> board = boardAdapter.read(in);
+                case "gameOver" -> gameOver = in.nextBoolean();
+                case "halfmoveClock" -> halfmoveClock = in.nextInt();
+                case "fullmoveNumber" -> fullmoveNumber = in.nextInt();
+                case "history" -> history = readHistory(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (board == null) {
+            board = new ChessBoard();
+            board.resetBoard();
+        }
+        return new ChessGame(board, teamTurn, halfmoveClock, fullmoveNumber, history, gameOver);
+    }
+
+    private long[] readHistory(JsonReader in) throws IOException {
+        long[] history = new long[16];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (size == history.length) {
+                history = Arrays.copyOf(history, size * 2);
+            }
+            history[size++] = in.nextLong();
+        }
+        in.endArray();
+        return Arrays.copyOf(history, size);
+    }
+}
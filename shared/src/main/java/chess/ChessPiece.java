@@ -1,9 +1,12 @@
 package chess;
 
 import chess.moves.JumpMovesCalculator;
+import chess.moves.Move;
+import chess.moves.MoveSink;
 import chess.moves.PawnMovesCalculator;
 import chess.moves.SlidingMovesCalculator;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -16,8 +19,18 @@ import java.util.Objects;
  */
 public class ChessPiece {
 
-    private ChessGame.TeamColor pieceColor;
-    private PieceType type;
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[ChessBoard.pieceIndex(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
+    private final ChessGame.TeamColor pieceColor;
+    private final PieceType type;
 
     public ChessPiece() {
         this.pieceColor = null;
@@ -30,6 +43,25 @@ public class ChessPiece {
         this.type = type;
     }
 
+    /**
+     * Gets the shared instance of a piece. There are only twelve distinct
+     * pieces and they are immutable, so boards and move generation reuse
+     * these rather than allocating new ones.
+     *
+     * @return the cached piece of that color and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[ChessBoard.pieceIndex(pieceColor, type)];
+    }
+
+    /**
+     * @param index a bitboard index from {@link ChessBoard#pieceIndex}
+     * @return the cached piece for that index
+     */
+    public static ChessPiece fromIndex(int index) {
+        return PIECES[index];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -64,26 +96,25 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
+        List<ChessMove> moves = new ArrayList<>();
+        pieceMoves(board, myPosition, move -> moves.add(Move.toChessMove(move)));
+        return moves;
+    }
+
+    /**
+     * Sends the same moves as {@link #pieceMoves(ChessBoard, ChessPosition)}
+     * to a sink as packed {@link Move} ints, without allocating.
+     *
+     * @return False if the sink stopped generation early
+     */
+    public boolean pieceMoves(ChessBoard board, ChessPosition myPosition, MoveSink sink) {
         ChessPiece piece = board.getPiece(myPosition);
+        int from = myPosition.getSquare();
 
         return switch (piece.getPieceType()) {
-            case BISHOP -> SlidingMovesCalculator.calculate(board, myPosition, piece, new int[][]{
-                    {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
-            });
-            case ROOK -> SlidingMovesCalculator.calculate(board, myPosition, piece, new int[][]{
-                    {1, 0}, {-1, 0}, {0, 1}, {0, -1}
-            });
-            case QUEEN -> SlidingMovesCalculator.calculate(board, myPosition, piece, new int[][]{
-                    {1, 1}, {1, -1}, {-1, 1}, {-1, -1}, {1, 0}, {-1, 0}, {0, 1}, {0, -1}
-            });
-            case KNIGHT -> JumpMovesCalculator.calculate(board, myPosition, piece, new int[][]{
-                    {2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}
-            });
-            case KING -> JumpMovesCalculator.calculate(board, myPosition, piece, new int[][]{
-                    {1, 1}, {1, -1}, {-1, 1}, {-1, -1}, {1, 0}, {-1, 0}, {0, 1}, {0, -1}
-            });
-            case PAWN -> PawnMovesCalculator.calculate(board, myPosition, piece);
-            default -> List.of();
+            case BISHOP, ROOK, QUEEN -> SlidingMovesCalculator.generate(board, from, piece, sink);
+            case KNIGHT, KING -> JumpMovesCalculator.generate(board, from, piece, sink);
+            case PAWN -> PawnMovesCalculator.generate(board, from, piece, sink);
         };
     }
 
@@ -94,6 +125,9 @@ public class ChessPiece {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -103,6 +137,6 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(pieceColor, type);
+        return 31 * Objects.hashCode(pieceColor) + Objects.hashCode(type);
     }
 }
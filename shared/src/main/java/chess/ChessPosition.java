@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -10,6 +8,14 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            POSITIONS[square] = new ChessPosition((square >>> 3) + 1, (square & 7) + 1);
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -18,6 +24,30 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance for a position. On-board positions come from a
+     * table of 64 cached instances, so hot paths do not allocate; off-board
+     * coordinates still get a fresh instance.
+     *
+     * @param row the row, 1 through 8
+     * @param col the column, 1 through 8
+     * @return the position at that row and column
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[(row - 1) * 8 + (col - 1)];
+    }
+
+    /**
+     * @param square square index from 0 (a1) to 63 (h8)
+     * @return the shared instance for that square
+     */
+    public static ChessPosition fromSquare(int square) {
+        return POSITIONS[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -34,6 +64,26 @@ public class ChessPosition {
         return col;
     }
 
+    /**
+     * @return True if the row and column are both 1 through 8
+     */
+    public boolean isOnBoard() {
+        return ((row - 1) | (col - 1)) >>> 3 == 0;
+    }
+
+    /**
+     * @return the bitboard square index of this position,
+     * 0 for a1 through 63 for h8
+     * @throws IndexOutOfBoundsException if the position is off the board,
+     * rather than aliasing it onto some other square
+     */
+    public int getSquare() {
+        if (!isOnBoard()) {
+            throw new IndexOutOfBoundsException("Position " + this + " is off the board");
+        }
+        return (row - 1) * 8 + (col - 1);
+    }
+
     @Override
     public String toString() {
         return String.format("[%d,%d]", row, col);
@@ -50,6 +100,8 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        // unique per on-board square and cheaper than loading a cached field;
+        // Gson builds positions without running the constructor
+        return row * 8 + col;
     }
 }
@@ -0,0 +1,219 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation. Both directions
+ * are single passes over the characters, with no splitting or regular
+ * expressions, so a FEN string is a cheap canonical form of a position.
+ * <p>
+ * The en passant field is written only when a pawn could actually capture
+ * there, following {@link ChessBoard#enPassantSquare()}, so two positions
+ * that are equal always produce the same string. Both move counters are
+ * kept, and default to 0 and 1 when left off.
+ */
+final class Fen {
+
+    static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // indexed by ChessBoard.pieceIndex: white king through pawn, then black
+    private static final String PIECE_LETTERS = "KQBNRPkqbnrp";
+
+    private Fen() {
+    }
+
+    static ChessGame parse(String fen) {
+        ChessBoard board = new ChessBoard();
+        int length = fen.length();
+        int i = 0;
+        while (i < length && fen.charAt(i) == ' ') {
+            i++;
+        }
+
+        int rank = 7;
+        int file = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (file != 8 || rank == 0) {
+                    throw invalid(fen, "each rank must have 8 squares");
+                }
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+                if (file > 8) {
+                    throw invalid(fen, "each rank must have 8 squares");
+                }
+            } else {
+                int piece = PIECE_LETTERS.indexOf(c);
+                if (piece < 0 || file > 7) {
+                    throw invalid(fen, "unexpected '" + c + "' in piece placement");
+                }
+                board.addPiece(ChessPosition.fromSquare(rank * 8 + file), ChessPiece.fromIndex(piece));
+                file++;
+            }
+        }
+        if (rank != 0 || file != 8) {
+            throw invalid(fen, "piece placement must have 8 ranks of 8 squares");
+        }
+
+        i = skipSpaces(fen, i);
+        ChessGame.TeamColor toMove;
+        if (i < length && fen.charAt(i) == 'w') {
+            toMove = ChessGame.TeamColor.WHITE;
+        } else if (i < length && fen.charAt(i) == 'b') {
+            toMove = ChessGame.TeamColor.BLACK;
+        } else {
+            throw invalid(fen, "side to move must be w or b");
+        }
+        i = endOfField(fen, i + 1);
+
+        int rights = 0;
+        i = skipSpaces(fen, i);
+        if (i == length) {
+            throw invalid(fen, "missing castling rights");
+        }
+        if (fen.charAt(i) == '-') {
+            i++;
+        } else {
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                rights |= switch (fen.charAt(i)) {
+                    case 'K' -> ChessBoard.WHITE_KINGSIDE;
+                    case 'Q' -> ChessBoard.WHITE_QUEENSIDE;
+                    case 'k' -> ChessBoard.BLACK_KINGSIDE;
+                    case 'q' -> ChessBoard.BLACK_QUEENSIDE;
+                    default -> throw invalid(fen, "castling rights must be - or letters from KQkq");
+                };
+            }
+        }
+        i = endOfField(fen, i);
+
+        int enPassant = 0;
+        i = skipSpaces(fen, i);
+        if (i == length) {
+            throw invalid(fen, "missing en passant square");
+        }
+        if (fen.charAt(i) == '-') {
+            i++;
+        } else if (i + 1 < length) {
+            int epFile = fen.charAt(i) - 'a';
+            char epRank = fen.charAt(i + 1);
+            char expected = toMove == ChessGame.TeamColor.WHITE ? '6' : '3';
+            if (epFile < 0 || epFile > 7 || epRank != expected) {
+                throw invalid(fen, "en passant square must be - or a square on rank " + expected);
+            }
+            enPassant = (epRank - '1') * 8 + epFile;
+            i += 2;
+        } else {
+            throw invalid(fen, "en passant square must be - or a square");
+        }
+        i = endOfField(fen, i);
+
+        // the halfmove clock and fullmove number are optional
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        for (int field = 0; field < 2; field++) {
+            i = skipSpaces(fen, i);
+            int start = i;
+            int value = 0;
+            while (i < length && fen.charAt(i) >= '0' && fen.charAt(i) <= '9') {
+                value = Math.min(value * 10 + fen.charAt(i) - '0', 10_000);
+                i++;
+            }
+            if (i == start && i < length) {
+                throw invalid(fen, "move counters must be numbers");
+            }
+            i = endOfField(fen, i);
+            if (i == start) {
+                continue;
+            }
+            if (field == 0) {
+                halfmoveClock = value;
+            } else {
+                // some writers use 0 for a position with no move played yet
+                fullmoveNumber = Math.max(1, value);
+            }
+        }
+        if (skipSpaces(fen, i) != length) {
+            throw invalid(fen, "unexpected text after the move counters");
+        }
+
+        board.setState(rights | enPassant << 4);
+        return new ChessGame(board, toMove, halfmoveClock, fullmoveNumber);
+    }
+
+    static String format(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        StringBuilder fen = new StringBuilder(90);
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                ChessPiece piece = board.pieceAt(rank * 8 + file);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                fen.append(PIECE_LETTERS.charAt(ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType())));
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (rank > 0) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+        int rights = board.castlingRights();
+        if (rights == 0) {
+            fen.append('-');
+        } else {
+            if ((rights & ChessBoard.WHITE_KINGSIDE) != 0) {
+                fen.append('K');
+            }
+            if ((rights & ChessBoard.WHITE_QUEENSIDE) != 0) {
+                fen.append('Q');
+            }
+            if ((rights & ChessBoard.BLACK_KINGSIDE) != 0) {
+                fen.append('k');
+            }
+            if ((rights & ChessBoard.BLACK_QUEENSIDE) != 0) {
+                fen.append('q');
+            }
+        }
+
+        int enPassant = board.enPassantSquare();
+        if (enPassant < 0) {
+            fen.append(" -");
+        } else {
+            fen.append(' ').append((char) ('a' + enPassant % 8)).append((char) ('1' + enPassant / 8));
+        }
+        return fen.append(' ').append(game.getHalfmoveClock())
+                .append(' ').append(game.getFullmoveNumber()).toString();
+    }
+
+    private static int skipSpaces(String fen, int i) {
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Checks that a field ends at {@code i}, at a space or the end of the
+     * string.
+     */
+    private static int endOfField(String fen, int i) {
+        if (i < fen.length() && fen.charAt(i) != ' ') {
+            throw invalid(fen, "unexpected '" + fen.charAt(i) + "'");
+        }
+        return i;
+    }
+
+    private static IllegalArgumentException invalid(String fen, String reason) {
+        return new IllegalArgumentException("Invalid FEN \"" + fen + "\": " + reason);
+    }
+}
@@ -0,0 +1,128 @@
+package chess;
+
+import chess.moves.Move;
+import chess.moves.MoveList;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft: counts the leaf nodes of the legal move tree to a fixed depth.
+ * Comparing the counts with published values checks the move generator,
+ * and nodes per second measures its raw speed.
+ * <p>
+ * Moves are played with make/unmake on the game itself and each ply reuses
+ * one {@link MoveList}, so a serial run allocates nothing per node. The last
+ * ply is counted in bulk from the size of the move list.
+ */
+final class Perft {
+
+    private Perft() {
+    }
+
+    static long perft(ChessGame game, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        return count(game, depth, newLists(depth));
+    }
+
+    static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        MoveList rootMoves = new MoveList();
+        game.legalMoves(game.getTeamTurn(), rootMoves);
+        MoveList[] lists = newLists(Math.max(depth - 1, 0));
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            long undo = game.makeMoveUnchecked(move);
+            counts.put(Move.toChessMove(move), depth <= 1 ? 1 : count(game, depth - 1, lists));
+            game.unmakeMove(undo);
+        }
+        return counts;
+    }
+
+    /**
+     * Splits the root moves across the pool. Each task searches its own copy
+     * of the game, so the tasks share no mutable state.
+     */
+    static long perftParallel(ChessGame game, int depth, ForkJoinPool pool) {
+        if (depth <= 1) {
+            return perft(game, depth);
+        }
+        return pool.invoke(new RootTask(game, depth));
+    }
+
+    private static long count(ChessGame game, int depth, MoveList[] lists) {
+        MoveList moves = lists[depth - 1];
+        moves.clear();
+        game.legalMoves(game.getTeamTurn(), moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            long undo = game.makeMoveUnchecked(moves.get(i));
+            nodes += count(game, depth - 1, lists);
+            game.unmakeMove(undo);
+        }
+        return nodes;
+    }
+
+    private static MoveList[] newLists(int depth) {
+        MoveList[] lists = new MoveList[depth];
+        for (int i = 0; i < depth; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+    private static final class RootTask extends RecursiveTask<Long> {
+        private final ChessGame game;
+        private final int depth;
+
+        RootTask(ChessGame game, int depth) {
+            this.game = game;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            MoveList rootMoves = new MoveList();
+            game.legalMoves(game.getTeamTurn(), rootMoves);
+
+            List<SubtreeTask> subtrees = new ArrayList<>(rootMoves.size());
+            for (int i = 0; i < rootMoves.size(); i++) {
+                subtrees.add(new SubtreeTask(game.deepCopy(), rootMoves.get(i), depth - 1));
+            }
+            long nodes = 0;
+            for (SubtreeTask subtree : ForkJoinTask.invokeAll(subtrees)) {
+                nodes += subtree.join();
+            }
+            return nodes;
+        }
+    }
+
+    private static final class SubtreeTask extends RecursiveTask<Long> {
+        private final ChessGame game;
+        private final int move;
+        private final int depth;
+
+        SubtreeTask(ChessGame game, int move, int depth) {
+            this.game = game;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            game.makeMoveUnchecked(move);
+            return perft(game, depth);
+        }
+    }
+}
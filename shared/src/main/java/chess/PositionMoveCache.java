@@ -0,0 +1,170 @@
+package chess;
+
+import chess.moves.MoveList;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of legal move lists shared by every game, keyed by the
+ * position key (board, rights and en passant square) of
+ * {@link ChessGame#positionKey()} taken for the team whose moves they are.
+ * Games that reach the same position, such as common openings, validate
+ * moves without regenerating them.
+ * <p>
+ * Lookups are lock-free. When the cache is full, an insert evicts with the
+ * CLOCK policy: a hand sweeps the slots, sparing and clearing any entry read
+ * since its last pass and evicting the first one that was not. That
+ * approximates LRU without reordering anything on a hit.
+ */
+public final class PositionMoveCache {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final PositionMoveCache SHARED = new PositionMoveCache(DEFAULT_CAPACITY);
+
+    private final ConcurrentHashMap<Long, Entry> entries;
+    private final Entry[] ring;
+    private final Object evictionLock = new Object();
+    private int filled;
+    private int hand;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PositionMoveCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        entries = new ConcurrentHashMap<>(capacity * 2);
+        ring = new Entry[capacity];
+    }
+
+    /**
+     * @return the cache that {@link ChessGame} consults for its legal moves
+     */
+    public static PositionMoveCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Appends the cached moves for a position to {@code out}.
+     *
+     * @param key the position key
+     * @param out list to append the packed moves to
+     * @return True on a hit, false if the position is not cached
+     */
+    public boolean get(long key, MoveList out) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return false;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hits.increment();
+        for (int move : entry.moves) {
+            out.add(move);
+        }
+        return true;
+    }
+
+    /**
+     * Caches a copy of the legal moves for a position, evicting another
+     * position if the cache is full. Does nothing if the key is present.
+     *
+     * @param key   the position key
+     * @param moves every legal move for the side to move
+     */
+    public void put(long key, MoveList moves) {
+        if (entries.containsKey(key)) {
+            return;
+        }
+        Entry entry = new Entry(key, moves.toArray());
+        synchronized (evictionLock) {
+            if (entries.containsKey(key)) {
+                return;
+            }
+            int slot;
+            if (filled < ring.length) {
+                slot = filled++;
+            } else {
+                slot = nextVictim();
+                entries.remove(ring[slot].key, ring[slot]);
+                evictions.increment();
+            }
+            ring[slot] = entry;
+            entries.put(key, entry);
+        }
+    }
+
+    private int nextVictim() {
+        while (true) {
+            Entry candidate = ring[hand];
+            int slot = hand;
+            hand = (hand + 1) % ring.length;
+            if (!candidate.referenced) {
+                return slot;
+            }
+            candidate.referenced = false;
+        }
+    }
+
+    public void clear() {
+        synchronized (evictionLock) {
+            entries.clear();
+            Arrays.fill(ring, null);
+            filled = 0;
+            hand = 0;
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return hits as a fraction of all lookups, or 0 before the first lookup
+     */
+    public double hitRate() {
+        long hitCount = hits();
+        long total = hitCount + misses();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PositionMoveCache{size=%d/%d, hits=%d, misses=%d, evictions=%d}",
+                size(), capacity(), hits(), misses(), evictions());
+    }
+
+    private static final class Entry {
+        private final long key;
+        private final int[] moves;
+        private volatile boolean referenced;
+
+        Entry(long key, int[] moves) {
+            this.key = key;
+            this.moves = moves;
+        }
+    }
+}
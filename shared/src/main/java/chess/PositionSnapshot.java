@@ -0,0 +1,183 @@
+package chess;
+
+/**
+ * An immutable copy of a game's position: the twelve piece bitboards, the
+ * castling and en passant state word, the side to move, the move counters
+ * and the repetition history. {@link ChessGame} publishes a new one after
+ * every change through a volatile reference, so other threads can read or
+ * serialize a game with {@link ChessGame#snapshot()} without locking and
+ * without ever seeing half of a move.
+ * <p>
+ * Taking a snapshot copies twelve longs; the history array is shared, since
+ * games replace it rather than modify it. The status is carried over when
+ * the game has already computed it, and otherwise worked out on first use
+ * from this snapshot alone.
+ */
+public final class PositionSnapshot {
+
+    private final long[] pieces;
+    private final int state;
+    private final ChessGame.TeamColor teamTurn;
+    private final int halfmoveClock;
+    private final int fullmoveNumber;
+    private final long[] history;
+    private final boolean gameOver;
+    private final long positionKey;
+    private final long version;
+    // racy but idempotent, like String.hashCode
+    private ChessGame.GameStatus status;
+
+    PositionSnapshot(ChessBoard board, ChessGame.TeamColor teamTurn, int halfmoveClock, int fullmoveNumber,
+                     long[] history, boolean gameOver, ChessGame.GameStatus status, long positionKey, long version) {
+        pieces = new long[12];
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                pieces[ChessBoard.pieceIndex(color, type)] = board.pieces(color, type);
+            }
+        }
+        this.state = board.state();
+        this.teamTurn = teamTurn;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        this.history = history;
+        this.gameOver = gameOver;
+        this.status = status;
+        this.positionKey = positionKey;
+        this.version = version;
+    }
+
+    /**
+     * @return which team's turn it is
+     */
+    public ChessGame.TeamColor getTeamTurn() {
+        return teamTurn;
+    }
+
+    /**
+     * @return the number of moves by either side since the last pawn move
+     * or capture
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current move, as in FEN
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * @return the same key as {@link ChessGame#positionKey()} had when this
+     * snapshot was taken
+     */
+    public long positionKey() {
+        return positionKey;
+    }
+
+    /**
+     * Counts published changes to the game this came from. A later snapshot
+     * of the same game always has a higher version.
+     *
+     * @return the version of this snapshot
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Gets the piece on a square.
+     *
+     * @param position the square to look at
+     * @return the piece, or null if the square is empty
+     */
+    public ChessPiece getPiece(ChessPosition position) {
+        return pieceAt(position.getSquare());
+    }
+
+    /**
+     * Gets the piece on a square index, as used by {@link ChessBoard#pieceAt(int)}.
+     *
+     * @param square the square, 0 for a1 through 63 for h8
+     * @return the piece, or null if the square is empty
+     */
+    public ChessPiece pieceAt(int square) {
+        long bit = 1L << square;
+        for (int i = 0; i < pieces.length; i++) {
+            if ((pieces[i] & bit) != 0) {
+                return ChessPiece.fromIndex(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return a bitboard of one team's pieces of one type
+     */
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[ChessBoard.pieceIndex(color, type)];
+    }
+
+    /**
+     * Gets the status of the game for the team to move, as
+     * {@link ChessGame#getGameStatus()} would have returned it.
+     *
+     * @return the game status
+     */
+    public ChessGame.GameStatus getGameStatus() {
+        ChessGame.GameStatus known = status;
+        if (known == null) {
+            known = new ChessGame(toBoard(), teamTurn, halfmoveClock, fullmoveNumber, history, false)
+                    .getGameStatus();
+            status = known;
+        }
+        if (gameOver && !known.isTerminal()) {
+            return ChessGame.GameStatus.RESIGNED;
+        }
+        return known;
+    }
+
+    /**
+     * @return True if no more moves may be played
+     */
+    public boolean isGameOver() {
+        return getGameStatus().isTerminal();
+    }
+
+    /**
+     * @return a new board with this position's pieces, castling rights and
+     * en passant square
+     */
+    public ChessBoard toBoard() {
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < pieces.length; i++) {
+            ChessPiece piece = ChessPiece.fromIndex(i);
+            for (long bits = pieces[i]; bits != 0; bits &= bits - 1) {
+                board.addPiece(ChessPosition.fromSquare(Long.numberOfTrailingZeros(bits)), piece);
+            }
+        }
+        board.setState(state);
+        return board;
+    }
+
+    /**
+     * @return a new game in this position, with the same move counters and
+     * repetition history, that can be changed freely
+     */
+    public ChessGame toGame() {
+        return new ChessGame(toBoard(), teamTurn, halfmoveClock, fullmoveNumber, history, gameOver);
+    }
+
+    /**
+     * @return the position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        return toGame().toFen();
+    }
+
+    @Override
+    public String toString() {
+        return "PositionSnapshot{" + toFen() + ", version=" + version + '}';
+    }
+}
@@ -0,0 +1,92 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist position hashing. A position's key is the XOR of
+ * one key per (piece, square) pair on the board, the keys of the usable
+ * castling rights and en passant file, plus {@link #sideToMove()} when black
+ * is to move, so adding or removing a piece updates the key with a single XOR.
+ * <p>
+ * The keys come from a fixed seed, so a position hashes to the same value
+ * in every JVM.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECE_KEYS = new long[12][64];
+    private static final long SIDE_TO_MOVE;
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    private static final long BLACK_EN_PASSANT;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C4E55L);
+        for (long[] keys : PIECE_KEYS) {
+            for (int square = 0; square < 64; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        SIDE_TO_MOVE = random.nextLong();
+
+        long[] rightKeys = new long[4];
+        for (int i = 0; i < rightKeys.length; i++) {
+            rightKeys[i] = random.nextLong();
+        }
+        for (int rights = 0; rights < CASTLING_KEYS.length; rights++) {
+            for (int i = 0; i < rightKeys.length; i++) {
+                if ((rights & 1 << i) != 0) {
+                    CASTLING_KEYS[rights] ^= rightKeys[i];
+                }
+            }
+        }
+        for (int file = 0; file < EN_PASSANT_KEYS.length; file++) {
+            EN_PASSANT_KEYS[file] = random.nextLong();
+        }
+        BLACK_EN_PASSANT = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return the key for a piece standing on a square index
+     */
+    public static long piece(ChessPiece piece, int square) {
+        return PIECE_KEYS[ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    /**
+     * @param rights castling rights as in {@link ChessBoard#castlingRights()}
+     * @return the key for that combination of rights; 0 when there are none
+     */
+    public static long castling(int rights) {
+        return CASTLING_KEYS[rights];
+    }
+
+    /**
+     * @param file file index of the en passant square, 0 for a through 7 for h
+     * @return the key mixed in while an en passant capture is available
+     */
+    public static long enPassant(int file) {
+        return EN_PASSANT_KEYS[file];
+    }
+
+    /**
+     * Tells an en passant square on the third rank, which black captures
+     * onto, from one on the sixth. Position keys leave it out because the
+     * side to move already implies the rank; it is for keys that do not
+     * include the side to move.
+     *
+     * @return the key for a black en passant capture being available
+     */
+    public static long blackEnPassant() {
+        return BLACK_EN_PASSANT;
+    }
+
+    /**
+     * @return the key mixed in when black is to move
+     */
+    public static long sideToMove() {
+        return SIDE_TO_MOVE;
+    }
+}
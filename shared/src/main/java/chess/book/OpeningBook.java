@@ -0,0 +1,118 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.moves.Move;
+import chess.moves.MoveList;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A read-only opening book, memory-mapped from a file so lookups read the
+ * operating system's page cache directly and no copy of the book is kept on
+ * the heap. Many engines and games can share one book.
+ * <p>
+ * The file is a sequence of 16-byte big-endian entries in the same shape as
+ * Polyglot books: an 8-byte position key ({@link ChessGame#positionKey()}),
+ * a 2-byte move (the {@link Move#identity(int)} of the move), a 2-byte
+ * weight and 4 reserved bytes. Entries are sorted by key, compared
+ * unsigned, and by descending weight within a key, so a position's moves
+ * are found with one binary search. {@link OpeningBookBuilder} writes this
+ * format.
+ */
+public final class OpeningBook {
+
+    static final int ENTRY_BYTES = 16;
+
+    private final MappedByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer entries) {
+        this.entries = entries;
+        this.size = entries.capacity() / ENTRY_BYTES;
+    }
+
+    /**
+     * Maps a book file.
+     *
+     * @throws IOException if the file cannot be read or is not a whole
+     *                     number of entries
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length % ENTRY_BYTES != 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            return new OpeningBook(buffer);
+        }
+    }
+
+    /**
+     * @return the number of entries in the book
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks up the current position of a game.
+     *
+     * @return the book's legal moves for the side to move, highest weight
+     *         first; empty when the position is not in the book
+     */
+    public List<BookMove> bookMoves(ChessGame game) {
+        long key = game.positionKey();
+        int index = firstIndexOf(key);
+        if (index == size || keyAt(index) != key) {
+            return List.of();
+        }
+
+        MoveList legal = new MoveList();
+        game.legalMoves(game.getTeamTurn(), legal);
+        List<BookMove> moves = new ArrayList<>();
+        for (; index < size && keyAt(index) == key; index++) {
+            int offset = index * ENTRY_BYTES;
+            int move = Short.toUnsignedInt(entries.getShort(offset + 8));
+            // a different position with the same key would name moves that are not legal here
+            if (legal.contains(move)) {
+                moves.add(new BookMove(Move.toChessMove(move), Short.toUnsignedInt(entries.getShort(offset + 10))));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * @return the first index whose key is not less than {@code key}
+     */
+    private int firstIndexOf(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return entries.getLong(index * ENTRY_BYTES);
+    }
+
+    @Override
+    public String toString() {
+        return "OpeningBook{entries=" + size + "}";
+    }
+}
@@ -0,0 +1,191 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.moves.Move;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Compiles PGN games into an {@link OpeningBook} file.
+ * <p>
+ * Every move of the first {@link #maxPly()} plies of each game is counted
+ * for the position it was played in, scored the way Polyglot scores book
+ * moves: 2 points when the side that played it went on to win, 1 for a
+ * draw or an unfinished game, none for a loss. Moves that never scored are
+ * left out. Games with a {@code FEN} tag start from that position. Games
+ * with an unreadable FEN are skipped, and games with a move that cannot be
+ * read are skipped from that move on.
+ * <p>
+ * Usage: {@code OpeningBookBuilder <pgn-directory> <book-file> [max-ply]}
+ */
+public final class OpeningBookBuilder {
+
+    public static final int DEFAULT_MAX_PLY = 24;
+
+    private final int maxPly;
+    // position key -> move identity -> points
+    private final Map<Long, Map<Integer, Long>> points = new HashMap<>();
+    private int games;
+    private int skippedGames;
+
+    public OpeningBookBuilder() {
+        this(DEFAULT_MAX_PLY);
+    }
+
+    /**
+     * @param maxPly how many plies from the start of each game to record
+     */
+    public OpeningBookBuilder(int maxPly) {
+        if (maxPly < 1) {
+            throw new IllegalArgumentException("maxPly must be at least 1");
+        }
+        this.maxPly = maxPly;
+    }
+
+    public int maxPly() {
+        return maxPly;
+    }
+
+    /**
+     * @return the number of games read so far, including skipped ones
+     */
+    public int games() {
+        return games;
+    }
+
+    /**
+     * @return the number of games that were skipped in whole or part
+     */
+    public int skippedGames() {
+        return skippedGames;
+    }
+
+    /**
+     * Adds every {@code .pgn} file in a directory and its subdirectories.
+     */
+    public OpeningBookBuilder addDirectory(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            files = paths.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().toLowerCase().endsWith(".pgn"))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : files) {
+            addFile(file);
+        }
+        return this;
+    }
+
+    public OpeningBookBuilder addFile(Path file) throws IOException {
+        // PGN is specified as Latin-1; ISO-8859-1 also reads any UTF-8 file without failing
+        return addPgn(Files.readString(file, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Adds the games in a PGN string.
+     */
+    public OpeningBookBuilder addPgn(String pgn) {
+        PgnReader.read(pgn, this::addGame);
+        return this;
+    }
+
+    private void addGame(PgnReader.Game game) {
+        games++;
+        ChessGame replay;
+        try {
+            String fen = game.tags().get("FEN");
+            replay = fen == null ? new ChessGame() : ChessGame.fromFen(fen);
+        } catch (IllegalArgumentException e) {
+            skippedGames++;
+            return;
+        }
+
+        int plies = Math.min(maxPly, game.moves().size());
+        for (int ply = 0; ply < plies; ply++) {
+            int move;
+            try {
+                move = San.parse(replay, game.moves().get(ply));
+            } catch (IllegalArgumentException e) {
+                skippedGames++;
+                return;
+            }
+            int score = score(game.result(), replay.getTeamTurn());
+            if (score > 0) {
+                points.computeIfAbsent(replay.positionKey(), key -> new HashMap<>())
+                        .merge(Move.identity(move), (long) score, Long::sum);
+            }
+            replay.makeMoveUnchecked(move);
+        }
+    }
+
+    private static int score(String result, ChessGame.TeamColor mover) {
+        return switch (result) {
+            case "1-0" -> mover == ChessGame.TeamColor.WHITE ? 2 : 0;
+            case "0-1" -> mover == ChessGame.TeamColor.BLACK ? 2 : 0;
+            default -> 1;
+        };
+    }
+
+    /**
+     * Writes the book collected so far.
+     *
+     * @return the number of entries written
+     */
+    public int write(Path file) throws IOException {
+        List<Long> keys = new ArrayList<>(points.keySet());
+        keys.sort(Long::compareUnsigned);
+
+        int entries = 0;
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            for (long key : keys) {
+                List<Map.Entry<Integer, Long>> moves = new ArrayList<>(points.get(key).entrySet());
+                moves.sort(Map.Entry.<Integer, Long>comparingByValue().reversed());
+                long top = moves.get(0).getValue();
+                for (Map.Entry<Integer, Long> move : moves) {
+                    out.writeLong(key);
+                    out.writeShort(move.getKey());
+                    out.writeShort(weight(move.getValue(), top));
+                    out.writeInt(0);
+                    entries++;
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Scales points into the 16-bit weight field, keeping their ratios
+     * within a position.
+     */
+    private static int weight(long points, long top) {
+        if (top <= 0xFFFF) {
+            return (int) points;
+        }
+        return (int) Math.max(1, points * 0xFFFF / top);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: OpeningBookBuilder <pgn-directory> <book-file> [max-ply]");
+            System.exit(2);
+        }
+        int maxPly = args.length == 3 ? Integer.parseInt(args[2]) : DEFAULT_MAX_PLY;
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPly).addDirectory(Path.of(args[0]));
+        int entries = builder.write(Path.of(args[1]));
+        System.out.printf("%d games (%d skipped), %d book entries%n",
+                builder.games(), builder.skippedGames(), entries);
+    }
+}
@@ -0,0 +1,171 @@
+package chess.book;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Splits PGN text into games. Tag pairs are kept, and the main line is
+ * returned as SAN strings; comments, variations, numeric annotation glyphs
+ * and move numbers are dropped. The reader does not check the moves, so a
+ * game with a bad move is still returned and fails when it is replayed.
+ */
+final class PgnReader {
+
+    /**
+     * One game from a PGN file.
+     *
+     * @param tags   tag pairs in file order, such as {@code Result}
+     * @param moves  main-line moves in SAN
+     * @param result the game termination marker: {@code 1-0}, {@code 0-1},
+     *               {@code 1/2-1/2} or {@code *}
+     */
+    record Game(Map<String, String> tags, List<String> moves, String result) {
+    }
+
+    private final String text;
+    private int pos;
+    private Map<String, String> tags = new LinkedHashMap<>();
+    private List<String> moves = new ArrayList<>();
+
+    private PgnReader(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Passes each game in {@code text} to {@code games}, in order.
+     */
+    static void read(String text, Consumer<Game> games) {
+        new PgnReader(text).readAll(games);
+    }
+
+    private void readAll(Consumer<Game> games) {
+        while (pos < text.length()) {
+            char c = text.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (c == '[') {
+                if (!moves.isEmpty()) {
+                    // a new tag section starts the next game
+                    finish(games, tags.getOrDefault("Result", "*"));
+                }
+                readTag();
+            } else if (c == '{') {
+                skipPast('}');
+            } else if (c == ';' || (c == '%' && atLineStart())) {
+                skipPast('\n');
+            } else if (c == '(') {
+                skipVariation();
+            } else if (c == ')' || c == '}' || c == ']') {
+                // unbalanced; nothing to read
+                pos++;
+            } else if (c == '$') {
+                pos++;
+                readToken();
+            } else {
+                String token = readToken();
+                if (isResult(token)) {
+                    finish(games, token);
+                } else {
+                    String move = stripMoveNumber(token);
+                    if (!move.isEmpty()) {
+                        moves.add(move);
+                    }
+                }
+            }
+        }
+        if (!moves.isEmpty() || !tags.isEmpty()) {
+            finish(games, tags.getOrDefault("Result", "*"));
+        }
+    }
+
+    private void finish(Consumer<Game> games, String result) {
+        games.accept(new Game(tags, List.copyOf(moves), result));
+        tags = new LinkedHashMap<>();
+        moves = new ArrayList<>();
+    }
+
+    private void readTag() {
+        int end = text.indexOf(']', pos);
+        if (end < 0) {
+            end = text.length();
+        }
+        String tag = text.substring(pos + 1, end).trim();
+        pos = Math.min(end + 1, text.length());
+
+        int space = tag.indexOf(' ');
+        if (space < 0) {
+            return;
+        }
+        String value = tag.substring(space + 1).trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).replace("\\\"", "\"").replace("\\\\", "\\");
+        }
+        tags.put(tag.substring(0, space), value);
+    }
+
+    private void skipVariation() {
+        int depth = 0;
+        while (pos < text.length()) {
+            char c = text.charAt(pos);
+            if (c == '{') {
+                skipPast('}');
+                continue;
+            }
+            pos++;
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return;
+            }
+        }
+    }
+
+    private void skipPast(char end) {
+        int index = text.indexOf(end, pos);
+        pos = index < 0 ? text.length() : index + 1;
+    }
+
+    private boolean atLineStart() {
+        return pos == 0 || text.charAt(pos - 1) == '\n';
+    }
+
+    private String readToken() {
+        int start = pos;
+        while (pos < text.length()) {
+            char c = text.charAt(pos);
+            if (Character.isWhitespace(c) || "{}()[];".indexOf(c) >= 0) {
+                break;
+            }
+            pos++;
+        }
+        return text.substring(start, pos);
+    }
+
+    private static boolean isResult(String token) {
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*");
+    }
+
+    /**
+     * Drops a leading move number such as {@code 12.} or {@code 12...},
+     * which some files write without a space before the move.
+     */
+    private static String stripMoveNumber(String token) {
+        int i = 0;
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        if (i == token.length()) {
+            return "";
+        }
+        if (token.charAt(i) != '.') {
+            return token;
+        }
+        while (i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        return token.substring(i);
+    }
+}
@@ -0,0 +1,142 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.moves.Move;
+import chess.moves.MoveList;
+
+/**
+ * Reads moves in Standard Algebraic Notation, the notation PGN files use:
+ * {@code e4}, {@code Nbd7}, {@code exd5}, {@code e8=Q}, {@code O-O-O}.
+ * A move is matched against the legal moves of the game, so check and
+ * annotation suffixes ({@code +}, {@code #}, {@code !?}) are ignored rather
+ * than verified.
+ */
+public final class San {
+
+    private San() {
+    }
+
+    /**
+     * Finds the legal move a SAN string names for the side to move.
+     *
+     * @param game the position the move is played in
+     * @param san  the move, for example {@code Nf3} or {@code exd8=Q+}
+     * @return the packed {@link Move}, with the generator's flags set
+     * @throws IllegalArgumentException if no legal move, or more than one,
+     *                                  matches
+     */
+    public static int parse(ChessGame game, String san) {
+        String text = stripSuffixes(san.trim());
+        MoveList moves = new MoveList();
+        game.legalMoves(game.getTeamTurn(), moves);
+
+        if (text.equals("O-O") || text.equals("0-0")) {
+            return castle(moves, 6, san);
+        }
+        if (text.equals("O-O-O") || text.equals("0-0-0")) {
+            return castle(moves, 2, san);
+        }
+
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (!text.isEmpty() && pieceType(text.charAt(0)) != null) {
+            type = pieceType(text.charAt(0));
+            text = text.substring(1);
+        }
+
+        ChessPiece.PieceType promotion = null;
+        int equals = text.indexOf('=');
+        if (equals >= 0 && equals == text.length() - 2) {
+            promotion = pieceType(text.charAt(text.length() - 1));
+            text = text.substring(0, equals);
+        } else if (type == ChessPiece.PieceType.PAWN && text.length() > 2
+                && pieceType(text.charAt(text.length() - 1)) != null) {
+            promotion = pieceType(text.charAt(text.length() - 1));
+            text = text.substring(0, text.length() - 1);
+        }
+
+        text = text.replace("x", "").replace(":", "").replace("-", "");
+        if (text.length() < 2 || text.length() > 4) {
+            throw new IllegalArgumentException("Not a SAN move: " + san);
+        }
+        int to = square(text.charAt(text.length() - 2), text.charAt(text.length() - 1), san);
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = 0; i < text.length() - 2; i++) {
+            char c = text.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else {
+                throw new IllegalArgumentException("Not a SAN move: " + san);
+            }
+        }
+
+        int match = Move.NONE;
+        int matches = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Move.from(move);
+            if (Move.to(move) != to
+                    || game.getBoard().pieceAt(from).getPieceType() != type
+                    || Move.promotion(move) != promotion
+                    || (fromFile >= 0 && from % 8 != fromFile)
+                    || (fromRank >= 0 && from / 8 != fromRank)) {
+                continue;
+            }
+            match = move;
+            matches++;
+        }
+        return single(match, matches, san);
+    }
+
+    private static int castle(MoveList moves, int kingFile, String san) {
+        int match = Move.NONE;
+        int matches = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.isCastle(move) && Move.to(move) % 8 == kingFile) {
+                match = move;
+                matches++;
+            }
+        }
+        return single(match, matches, san);
+    }
+
+    private static int single(int match, int matches, String san) {
+        if (matches == 0) {
+            throw new IllegalArgumentException("Illegal move: " + san);
+        }
+        if (matches > 1) {
+            throw new IllegalArgumentException("Ambiguous move: " + san);
+        }
+        return match;
+    }
+
+    private static String stripSuffixes(String text) {
+        int end = text.length();
+        while (end > 0 && "+#!?".indexOf(text.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+
+    private static int square(char file, char rank, String san) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            throw new IllegalArgumentException("Not a SAN move: " + san);
+        }
+        return (rank - '1') * 8 + (file - 'a');
+    }
+
+    private static ChessPiece.PieceType pieceType(char letter) {
+        return switch (letter) {
+            case 'K' -> ChessPiece.PieceType.KING;
+            case 'Q' -> ChessPiece.PieceType.QUEEN;
+            case 'R' -> ChessPiece.PieceType.ROOK;
+            case 'B' -> ChessPiece.PieceType.BISHOP;
+            case 'N' -> ChessPiece.PieceType.KNIGHT;
+            default -> null;
+        };
+    }
+}
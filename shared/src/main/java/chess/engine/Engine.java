@@ -0,0 +1,239 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.book.BookMove;
+import chess.book.OpeningBook;
+import chess.moves.Move;
+import chess.moves.MoveList;
+import chess.tablebase.Tablebase;
+import chess.tablebase.TablebaseResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chooses moves for computer opponents. Each search runs on private copies
+ * of the game, so the caller's game is never touched.
+ * <p>
+ * With more than one thread the engine runs a Lazy SMP search: every thread
+ * searches the same position on its own copy, and they share work only
+ * through the lock-free {@link TranspositionTable}. The calling thread is
+ * the main worker whose result is returned; helpers stop when it finishes.
+ * The table is kept between searches, so consecutive moves in one game
+ * reuse earlier work; call {@link #newGame()} when switching games.
+ * <p>
+ * With an {@link OpeningBook} set, positions found in the book are answered
+ * with the book's highest weighted move instead of searching. Likewise,
+ * with a {@link Tablebase} set, endings it covers are played perfectly from
+ * the tables.
+ */
+public final class Engine {
+
+    /**
+     * How moves are ordered before searching them.
+     */
+    public enum Ordering {
+        /**
+         * The hash move, then captures, then quiet moves, each in generation
+         * order. Kept as a baseline for measuring {@link #HEURISTICS}.
+         */
+        HASH_AND_CAPTURES,
+        /**
+         * The hash move, captures by MVV-LVA, promotions, killer moves, then
+         * quiet moves by history score.
+         */
+        HEURISTICS
+    }
+
+    private final int threads;
+    private final TranspositionTable table;
+    private volatile Ordering ordering = Ordering.HEURISTICS;
+    private volatile OpeningBook openingBook;
+    private volatile Tablebase tablebase;
+
+    public Engine() {
+        this(1);
+    }
+
+    /**
+     * @param threads number of search threads, including the caller's
+     */
+    public Engine(int threads) {
+        this(threads, TranspositionTable.DEFAULT_MEGABYTES);
+    }
+
+    /**
+     * @param threads       number of search threads, including the caller's
+     * @param hashMegabytes  memory for the transposition table
+     */
+    public Engine(int threads, int hashMegabytes) {
+        this(threads, new TranspositionTable(hashMegabytes));
+    }
+
+    public Engine(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.threads = threads;
+        this.table = table;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    public TranspositionTable transpositionTable() {
+        return table;
+    }
+
+    public Ordering ordering() {
+        return ordering;
+    }
+
+    /**
+     * Sets the move ordering used by later searches.
+     */
+    public void setOrdering(Ordering ordering) {
+        if (ordering == null) {
+            throw new IllegalArgumentException("ordering must not be null");
+        }
+        this.ordering = ordering;
+    }
+
+    public OpeningBook openingBook() {
+        return openingBook;
+    }
+
+    /**
+     * Sets the book consulted before searching, or {@code null} for none.
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    public Tablebase tablebase() {
+        return tablebase;
+    }
+
+    /**
+     * Sets the endgame tables consulted before searching, or {@code null}
+     * for none.
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Forgets everything learned from earlier searches.
+     */
+    public void newGame() {
+        table.clear();
+    }
+
+    /**
+     * Searches the position for the side to move.
+     *
+     * @param game   the game to choose a move in; it is not modified
+     * @param limits when to stop searching; node limits count every thread
+     * @return the best move found, with its score and expected line; a book
+     *         or tablebase move has depth 0 and no nodes
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        long start = System.nanoTime();
+        OpeningBook book = openingBook;
+        if (book != null) {
+            List<BookMove> moves = book.bookMoves(game);
+            if (!moves.isEmpty()) {
+                return new SearchResult(moves.get(0).move(), 0, 0, 0, System.nanoTime() - start,
+                        List.of(moves.get(0).move()));
+            }
+        }
+        Tablebase endings = tablebase;
+        if (endings != null) {
+            SearchResult result = tablebaseMove(game, endings, start);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        table.newSearch();
+        SharedSearch shared = new SharedSearch(limits, table, ordering, start);
+
+        List<SearchWorker> helpers = new ArrayList<>(threads - 1);
+        List<Thread> helperThreads = new ArrayList<>(threads - 1);
+        for (int id = 1; id < threads; id++) {
+            SearchWorker helper = new SearchWorker(id, game.deepCopy(), shared);
+            helpers.add(helper);
+            Thread thread = new Thread(() -> helper.iterate(start), "search-helper-" + id);
+            thread.setDaemon(true);
+            helperThreads.add(thread);
+            thread.start();
+        }
+
+        SearchWorker main = new SearchWorker(0, game.deepCopy(), shared);
+        SearchResult result;
+        try {
+            result = main.iterate(start);
+        } finally {
+            shared.stop();
+            for (Thread thread : helperThreads) {
+                joinQuietly(thread);
+            }
+        }
+
+        long nodes = main.nodes();
+        for (SearchWorker helper : helpers) {
+            nodes += helper.nodes();
+        }
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes,
+                System.nanoTime() - start, result.principalVariation());
+    }
+
+    /**
+     * Plays the move whose tablebase result is best: the fastest mate when
+     * winning, a draw if there is one, and otherwise the slowest loss.
+     *
+     * @return null if the position or any move from it is not covered
+     */
+    private static SearchResult tablebaseMove(ChessGame game, Tablebase tablebase, long start) {
+        if (tablebase.probe(game) == null) {
+            return null;
+        }
+        ChessGame copy = game.deepCopy();
+        MoveList moves = new MoveList();
+        copy.legalMoves(copy.getTeamTurn(), moves);
+        int bestMove = Move.NONE;
+        int bestScore = -Evaluation.INFINITY;
+        for (int i = 0; i < moves.size(); i++) {
+            long undo = copy.makeMoveUnchecked(moves.get(i));
+            TablebaseResult reply = tablebase.probe(copy);
+            copy.unmakeMove(undo);
+            if (reply == null) {
+                return null;
+            }
+            int score = switch (reply.outcome()) {
+                case LOSS -> Evaluation.MATE - (reply.pliesToMate() + 1);
+                case DRAW -> 0;
+                case WIN -> -Evaluation.MATE + reply.pliesToMate() + 1;
+            };
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = moves.get(i);
+            }
+        }
+        if (bestMove == Move.NONE) {
+            return null;
+        }
+        ChessMove move = Move.toChessMove(bestMove);
+        return new SearchResult(move, bestScore, 0, 0, System.nanoTime() - start, List.of(move));
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
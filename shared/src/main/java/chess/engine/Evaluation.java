@@ -0,0 +1,51 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Static evaluation for the search, in centipawns from the point of view of
+ * the side to move. The bulk of it, material and tapered piece-square
+ * scores, is maintained incrementally by {@link ChessBoard}, so evaluating
+ * a node is O(1) plus a few bitboard terms.
+ */
+public final class Evaluation {
+
+    public static final int MATE = 30_000;
+    public static final int INFINITY = 32_000;
+
+    private static final int BISHOP_PAIR = 30;
+
+    private static final int[] PIECE_VALUES = new int[ChessPiece.PieceType.values().length];
+
+    static {
+        PIECE_VALUES[ChessPiece.PieceType.KING.ordinal()] = 0;
+        PIECE_VALUES[ChessPiece.PieceType.QUEEN.ordinal()] = 900;
+        PIECE_VALUES[ChessPiece.PieceType.BISHOP.ordinal()] = 330;
+        PIECE_VALUES[ChessPiece.PieceType.KNIGHT.ordinal()] = 320;
+        PIECE_VALUES[ChessPiece.PieceType.ROOK.ordinal()] = 500;
+        PIECE_VALUES[ChessPiece.PieceType.PAWN.ordinal()] = 100;
+    }
+
+    private Evaluation() {
+    }
+
+    /**
+     * @return the material value of a piece type, 0 for the king
+     */
+    public static int pieceValue(ChessPiece.PieceType type) {
+        return PIECE_VALUES[type.ordinal()];
+    }
+
+    public static int evaluate(ChessBoard board, ChessGame.TeamColor sideToMove) {
+        int score = board.pieceSquareScore();
+        if (Long.bitCount(board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP)) >= 2) {
+            score += BISHOP_PAIR;
+        }
+        if (Long.bitCount(board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP)) >= 2) {
+            score -= BISHOP_PAIR;
+        }
+        return sideToMove == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
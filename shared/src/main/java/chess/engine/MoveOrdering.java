@@ -0,0 +1,147 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.moves.Move;
+import chess.moves.MoveList;
+
+/**
+ * Scores moves so the search tries the likeliest cutoffs first: the hash
+ * move, then captures by most valuable victim and least valuable attacker
+ * (MVV-LVA), then promotions, then the two killer moves remembered for this
+ * ply, then quiet moves by their history score.
+ * <p>
+ * Moves are not sorted up front. {@link #pickNext} swaps the best remaining
+ * move into place as the search reaches it, so a cutoff on an early move
+ * skips the work of ordering the rest. Each search thread owns one of these.
+ */
+final class MoveOrdering {
+
+    private static final int HASH_MOVE = 2_000_000;
+    private static final int CAPTURE = 1_000_000;
+    private static final int PROMOTION = 900_000;
+    private static final int FIRST_KILLER = 800_000;
+    private static final int SECOND_KILLER = 790_000;
+    private static final int HISTORY_LIMIT = 500_000;
+
+    private final boolean heuristics;
+    private final int[][] killers;
+    // [color][from][to], raised by depth squared on quiet cutoffs
+    private final int[][][] history = new int[2][64][64];
+
+    /**
+     * @param heuristics false to order only the hash move and then captures,
+     *                   in generation order, as a baseline for comparison
+     */
+    MoveOrdering(int maxPly, boolean heuristics) {
+        this.heuristics = heuristics;
+        killers = new int[maxPly][2];
+    }
+
+    /**
+     * Fills {@code scores} with an ordering score per move.
+     */
+    void score(MoveList moves, int[] scores, ChessBoard board, ChessGame.TeamColor color, int hashMove, int ply) {
+        int[] plyKillers = killers[ply];
+        int[][] colorHistory = history[color.ordinal()];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (hashMove != Move.NONE && Move.sameMove(move, hashMove)) {
+                scores[i] = HASH_MOVE;
+            } else if (!heuristics) {
+                scores[i] = Move.isCapture(move) ? CAPTURE : 0;
+            } else if (Move.isCapture(move)) {
+                scores[i] = CAPTURE + captureScore(board, move);
+            } else if (Move.promotion(move) != null) {
+                scores[i] = PROMOTION + Evaluation.pieceValue(Move.promotion(move));
+            } else if (Move.sameMove(move, plyKillers[0])) {
+                scores[i] = FIRST_KILLER;
+            } else if (Move.sameMove(move, plyKillers[1])) {
+                scores[i] = SECOND_KILLER;
+            } else {
+                scores[i] = colorHistory[Move.from(move)][Move.to(move)];
+            }
+        }
+    }
+
+    /**
+     * Scores captures only, for quiescence; quiet moves get -1.
+     */
+    void scoreCaptures(MoveList moves, int[] scores, ChessBoard board) {
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (!heuristics) {
+                scores[i] = Move.isCapture(move) || Move.promotion(move) != null ? CAPTURE : -1;
+            } else if (Move.isCapture(move)) {
+                scores[i] = CAPTURE + captureScore(board, move);
+            } else if (Move.promotion(move) != null) {
+                scores[i] = PROMOTION + Evaluation.pieceValue(Move.promotion(move));
+            } else {
+                scores[i] = -1;
+            }
+        }
+    }
+
+    private static int captureScore(ChessBoard board, int move) {
+        ChessPiece victim = board.pieceAt(Move.to(move));
+        // an empty target on a capture is en passant, which takes a pawn
+        int victimValue = victim == null
+                ? Evaluation.pieceValue(ChessPiece.PieceType.PAWN)
+                : Evaluation.pieceValue(victim.getPieceType());
+        ChessPiece attacker = board.pieceAt(Move.from(move));
+        return victimValue * 16 - Evaluation.pieceValue(attacker.getPieceType()) / 10;
+    }
+
+    /**
+     * Swaps the highest scoring move at or after {@code index} into
+     * {@code index} and returns it.
+     */
+    static int pickNext(MoveList moves, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            int move = moves.get(best);
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves.get(index);
+    }
+
+    /**
+     * Remembers a quiet move that caused a beta cutoff.
+     */
+    void recordCutoff(ChessGame.TeamColor color, int move, int depth, int ply) {
+        if (!heuristics || Move.isCapture(move) || Move.promotion(move) != null) {
+            return;
+        }
+        int[] plyKillers = killers[ply];
+        if (!Move.sameMove(move, plyKillers[0])) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = Move.identity(move);
+        }
+
+        int[][] colorHistory = history[color.ordinal()];
+        colorHistory[Move.from(move)][Move.to(move)] += depth * depth;
+        if (colorHistory[Move.from(move)][Move.to(move)] >= HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    private void ageHistory() {
+        for (int[][] colorHistory : history) {
+            for (int[] fromHistory : colorHistory) {
+                for (int to = 0; to < 64; to++) {
+                    fromHistory[to] /= 2;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package chess.engine;
+
+/**
+ * How far a search may go. The search stops at whichever limit it reaches
+ * first, and always finishes at least one ply so there is a move to play.
+ *
+ * @param maxDepth  deepest iteration, in plies, from 1 to {@link #MAX_DEPTH}
+ * @param maxNodes  nodes to visit before stopping
+ * @param maxMillis wall-clock time to search for
+ */
+public record SearchLimits(int maxDepth, long maxNodes, long maxMillis) {
+
+    public static final int MAX_DEPTH = 64;
+
+    public SearchLimits {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("maxDepth must be between 1 and " + MAX_DEPTH);
+        }
+        if (maxNodes <= 0 || maxMillis <= 0) {
+            throw new IllegalArgumentException("node and time limits must be positive");
+        }
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(MAX_DEPTH, maxNodes, Long.MAX_VALUE);
+    }
+
+    public static SearchLimits millis(long maxMillis) {
+        return new SearchLimits(MAX_DEPTH, Long.MAX_VALUE, maxMillis);
+    }
+
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(depth, maxNodes, maxMillis);
+    }
+
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(maxDepth, nodes, maxMillis);
+    }
+
+    public SearchLimits withMillis(long millis) {
+        return new SearchLimits(maxDepth, maxNodes, millis);
+    }
+}
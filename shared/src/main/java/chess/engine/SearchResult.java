@@ -0,0 +1,44 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * The outcome of a search, taken from the deepest iteration that finished.
+ *
+ * @param bestMove           the move to play, or null if the side to move has none
+ * @param score              centipawns from the point of view of the side to move;
+ *                           mate scores are near {@link Evaluation#MATE}
+ * @param depth              the deepest completed iteration
+ * @param nodes              positions visited, including quiescence
+ * @param elapsedNanos       wall-clock time spent searching
+ * @param principalVariation the expected line of play, starting with bestMove
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, long elapsedNanos,
+                           List<ChessMove> principalVariation) {
+
+    public long nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    /**
+     * @return True if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Evaluation.MATE - SearchLimits.MAX_DEPTH * 2;
+    }
+
+    /**
+     * @return moves until mate, positive when the side to move mates and
+     * negative when it is mated, or 0 if the score is not a mate
+     */
+    public int mateIn() {
+        if (!isMate()) {
+            return 0;
+        }
+        int plies = Evaluation.MATE - Math.abs(score);
+        int moves = (plies + 1) / 2;
+        return score > 0 ? moves : -moves;
+    }
+}
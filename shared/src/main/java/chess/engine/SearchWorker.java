@@ -0,0 +1,355 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.moves.Move;
+import chess.moves.MoveList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One search thread over a private copy of the game: iterative deepening of
+ * a negamax alpha-beta search, with a captures-only quiescence search at the
+ * leaves so positions are never scored in the middle of an exchange.
+ * <p>
+ * Moves are played with make/unmake and each ply reuses its own
+ * {@link MoveList} and score array, so the search allocates nothing per
+ * node. Moves are picked one at a time in {@link MoveOrdering} order. The principal
+ * variation is collected in a triangular table: row {@code ply} holds the
+ * best line found from that ply.
+ * <p>
+ * Trial moves leave the game's halfmove clock and history alone, so the
+ * worker tracks both along the current line. A position that repeats one
+ * from earlier in the line or the game, or that reaches the fifty-move
+ * limit, scores as a draw.
+ * <p>
+ * In a parallel search every worker runs this same loop and they cooperate
+ * only through the shared transposition table (Lazy SMP). Helpers skip
+ * some depths, following a fixed pattern per thread, so they spread across
+ * iterations instead of all repeating the main worker's.
+ */
+final class SearchWorker {
+
+    private static final int MAX_PLY = 128;
+    private static final int CHECK_INTERVAL = 1024;
+    private static final int FIFTY_MOVES = 100;
+
+    // Depth skipping for helper threads: helper i skips a depth when
+    // ((depth + SKIP_PHASE[i]) / SKIP_SIZE[i]) is odd.
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    private final int id;
+    private final ChessGame game;
+    private final SharedSearch shared;
+    private final TranspositionTable table;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] moveScores = new int[MAX_PLY][MoveList.DEFAULT_CAPACITY];
+    private final MoveOrdering ordering;
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    // the game's earlier positions, then the position at each ply of the current line
+    private final long[] keys;
+    private final int rootIndex;
+    private final int[] clocks = new int[MAX_PLY];
+
+    private long nodes;
+    private long unreportedNodes;
+    private boolean stopped;
+    private int completedDepth;
+
+    SearchWorker(int id, ChessGame game, SharedSearch shared) {
+        this.id = id;
+        this.game = game;
+        this.shared = shared;
+        this.table = shared.table;
+        this.ordering = new MoveOrdering(MAX_PLY, shared.ordering == Engine.Ordering.HEURISTICS);
+        for (int i = 0; i < MAX_PLY; i++) {
+            moveLists[i] = new MoveList();
+        }
+        long[] history = game.positionHistory();
+        keys = Arrays.copyOf(history, history.length + MAX_PLY);
+        rootIndex = history.length;
+        clocks[0] = game.getHalfmoveClock();
+    }
+
+    long nodes() {
+        return nodes;
+    }
+
+    SearchResult iterate(long start) {
+        int[] bestLine = new int[0];
+        int bestScore = 0;
+        for (int depth = 1; depth <= shared.limits.maxDepth(); depth++) {
+            if (skipsDepth(depth)) {
+                continue;
+            }
+            int score = search(depth, 0, -Evaluation.INFINITY, Evaluation.INFINITY,
+                    bestLine.length > 0 ? bestLine[0] : Move.NONE);
+            if (stopped) {
+                break;
+            }
+            bestLine = Arrays.copyOf(pvTable[0], pvLength[0]);
+            bestScore = score;
+            completedDepth = depth;
+            if (Math.abs(score) >= Evaluation.MATE - MAX_PLY) {
+                break;
+            }
+        }
+        shared.addNodes(unreportedNodes);
+        unreportedNodes = 0;
+
+        List<ChessMove> pv = new ArrayList<>(bestLine.length);
+        for (int move : bestLine) {
+            pv.add(Move.toChessMove(move));
+        }
+        return new SearchResult(pv.isEmpty() ? null : pv.get(0), bestScore, completedDepth, nodes,
+                System.nanoTime() - start, List.copyOf(pv));
+    }
+
+    private boolean skipsDepth(int depth) {
+        if (id == 0) {
+            return false;
+        }
+        int i = (id - 1) % SKIP_SIZE.length;
+        return ((depth + SKIP_PHASE[i]) / SKIP_SIZE[i]) % 2 != 0;
+    }
+
+    private int search(int depth, int ply, int alpha, int beta, int rootMove) {
+        pvLength[ply] = 0;
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiesce(ply, alpha, beta);
+        }
+        if (shouldStop()) {
+            return 0;
+        }
+        countNode();
+
+        long key = game.positionKey();
+        keys[rootIndex + ply] = key;
+        if (ply > 0 && isRepetition(ply)) {
+            return 0;
+        }
+        long entry = table.probe(key);
+        int hashMove = ply == 0 ? rootMove : Move.NONE;
+        if (entry != 0) {
+            if (hashMove == Move.NONE) {
+                hashMove = TranspositionTable.move(entry);
+            }
+            // no cutoffs at the root, which must always produce a move and a line
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        ChessGame.TeamColor toMove = game.getTeamTurn();
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.legalMoves(toMove, moves);
+        if (moves.isEmpty()) {
+            return game.isInCheck(toMove) ? -Evaluation.MATE + ply : 0;
+        }
+        // checked after mate, which still wins on the fiftieth move
+        if (ply > 0 && clocks[ply] >= FIFTY_MOVES) {
+            return 0;
+        }
+        int[] scores = scoresFor(ply, moves.size());
+        ordering.score(moves, scores, game.getBoard(), toMove, hashMove, ply);
+
+        int originalAlpha = alpha;
+        int best = -Evaluation.INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = MoveOrdering.pickNext(moves, scores, i);
+            advanceClock(ply, move, toMove);
+            long undo = game.makeMoveUnchecked(move);
+            int score = -search(depth - 1, ply + 1, -beta, -alpha, Move.NONE);
+            game.unmakeMove(undo);
+            if (stopped) {
+                return best == -Evaluation.INFINITY ? 0 : best;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        ordering.recordCutoff(toMove, move, depth, ply);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.BOUND_LOWER
+                : best > originalAlpha ? TranspositionTable.BOUND_EXACT
+                : TranspositionTable.BOUND_UPPER;
+        table.store(key, Move.identity(bestMove), toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiesce(int ply, int alpha, int beta) {
+        if (shouldStop()) {
+            return 0;
+        }
+        countNode();
+
+        keys[rootIndex + ply] = game.positionKey();
+        if (ply > 0 && (clocks[ply] >= FIFTY_MOVES || isRepetition(ply))) {
+            return 0;
+        }
+        ChessGame.TeamColor toMove = game.getTeamTurn();
+        int standPat = Evaluation.evaluate(game.getBoard(), toMove);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.legalMoves(toMove, moves);
+        int[] scores = scoresFor(ply, moves.size());
+        ordering.scoreCaptures(moves, scores, game.getBoard());
+        int best = standPat;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = MoveOrdering.pickNext(moves, scores, i);
+            if (scores[i] < 0) {
+                // only quiet moves are left
+                break;
+            }
+            advanceClock(ply, move, toMove);
+            long undo = game.makeMoveUnchecked(move);
+            int score = -quiesce(ply + 1, -beta, -alpha);
+            game.unmakeMove(undo);
+            if (stopped) {
+                return best;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the score buffer for a ply, growing it if the move list has
+     * outgrown it.
+     */
+    private int[] scoresFor(int ply, int size) {
+        int[] scores = moveScores[ply];
+        if (scores.length < size) {
+            scores = new int[Math.max(size, scores.length * 2)];
+            moveScores[ply] = scores;
+        }
+        return scores;
+    }
+
+    /**
+     * Sets the halfmove clock for the position after {@code move}: back to
+     * zero after a pawn move or capture, otherwise one more than now.
+     */
+    private void advanceClock(int ply, int move, ChessGame.TeamColor toMove) {
+        long pawns = game.getBoard().pieces(toMove, ChessPiece.PieceType.PAWN);
+        boolean irreversible = Move.isCapture(move) || (pawns & (1L << Move.from(move))) != 0;
+        clocks[ply + 1] = irreversible ? 0 : clocks[ply] + 1;
+    }
+
+    /**
+     * Looks for the position at {@code ply} among the earlier positions with
+     * the same side to move, back to the last pawn move or capture. One
+     * repetition is enough: if it was worth repeating once, it can be
+     * repeated again.
+     */
+    private boolean isRepetition(int ply) {
+        int index = rootIndex + ply;
+        long key = keys[index];
+        int earliest = Math.max(0, index - clocks[ply]);
+        // a position cannot recur after only two plies
+        for (int i = index - 4; i >= earliest; i -= 2) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Mate scores are stored relative to the node rather than the root, so
+     * an entry stays correct when the position is reached at another ply.
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= Evaluation.MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -Evaluation.MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= Evaluation.MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -Evaluation.MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private void updatePv(int ply, int move) {
+        int[] row = pvTable[ply];
+        int[] child = pvTable[ply + 1];
+        row[0] = move;
+        System.arraycopy(child, 0, row, 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    private void countNode() {
+        nodes++;
+        if (++unreportedNodes == CHECK_INTERVAL) {
+            shared.addNodes(unreportedNodes);
+            unreportedNodes = 0;
+        }
+    }
+
+    private boolean shouldStop() {
+        if (stopped) {
+            return true;
+        }
+        if (id == 0 && completedDepth == 0) {
+            // the main worker always finishes its first iteration, so there is a move to play
+            return false;
+        }
+        if (shared.isStopped()) {
+            stopped = true;
+            return true;
+        }
+        if (shared.nodes() + unreportedNodes >= shared.limits.maxNodes()
+                || (unreportedNodes == 0 && System.nanoTime() >= shared.deadline)) {
+            shared.stop();
+            stopped = true;
+        }
+        return stopped;
+    }
+}
@@ -0,0 +1,43 @@
+package chess.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State shared by every thread of one search: the limits, the
+ * transposition table, the move ordering, the total node count and the
+ * stop signal.
+ */
+final class SharedSearch {
+
+    final SearchLimits limits;
+    final TranspositionTable table;
+    final Engine.Ordering ordering;
+    final long deadline;
+    private final AtomicLong nodes = new AtomicLong();
+    private volatile boolean stopped;
+
+    SharedSearch(SearchLimits limits, TranspositionTable table, Engine.Ordering ordering, long start) {
+        this.limits = limits;
+        this.table = table;
+        this.ordering = ordering;
+        this.deadline = limits.maxMillis() >= Long.MAX_VALUE / 1_000_000
+                ? Long.MAX_VALUE
+                : start + limits.maxMillis() * 1_000_000;
+    }
+
+    long nodes() {
+        return nodes.get();
+    }
+
+    void addNodes(long count) {
+        nodes.addAndGet(count);
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    void stop() {
+        stopped = true;
+    }
+}
@@ -0,0 +1,213 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size hash table of searched positions, shared by every search
+ * thread without locks. Its memory is allocated once, as a single
+ * {@code long[]} sized in megabytes, and never grows.
+ * <p>
+ * Each entry is two longs: the position key XORed with the data, then the
+ * data itself. A reader recomputes the key from both halves, so an entry
+ * torn by two threads writing at once simply fails to match and is treated
+ * as a miss. Entries are grouped four to a bucket, 64 bytes or one cache
+ * line, and a key may sit in any entry of its bucket.
+ * <p>
+ * Replacement is depth-preferred: a store overwrites the same position, or
+ * else an empty entry, or else the entry whose depth is lowest once entries
+ * left over from earlier searches are counted as shallower than they are.
+ * <p>
+ * Data layout: bits 0-15 hold the best move's identity, bits 16-31 the
+ * score, bits 32-39 the depth, bits 40-41 the bound type and bits 42-47 the
+ * search generation that wrote it. A stored entry always has a bound, so a
+ * data word of 0 means "no entry".
+ */
+public final class TranspositionTable {
+
+    public static final int BOUND_LOWER = 1;
+    public static final int BOUND_UPPER = 2;
+    public static final int BOUND_EXACT = 3;
+
+    public static final int DEFAULT_MEGABYTES = 16;
+
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int LONGS_PER_BUCKET = BUCKET_ENTRIES * 2;
+    private static final int GENERATIONS = 64;
+    // how many plies of depth one search generation of age is worth
+    private static final int AGE_WEIGHT = 4;
+    private static final int SAMPLE_BUCKETS = 256;
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * @param megabytes memory to use; the entry count is rounded down to a
+     *                  power of two
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("megabytes must be positive");
+        }
+        long buckets = ((long) megabytes << 20) / (LONGS_PER_BUCKET * Long.BYTES);
+        int size = Integer.highestOneBit((int) Math.min(buckets, 1 << 26));
+        table = new long[size * LONGS_PER_BUCKET];
+        bucketMask = size - 1;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches are
+     * replaced before fresh ones of the same depth.
+     */
+    public void newSearch() {
+        generation = (generation + 1) % GENERATIONS;
+    }
+
+    /**
+     * @return the entry's data word, or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        probes.increment();
+        int base = bucket(key);
+        for (int i = base; i < base + LONGS_PER_BUCKET; i += 2) {
+            long data = table[i + 1];
+            if (data != 0 && (table[i] ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int current = generation;
+        int base = bucket(key);
+        int victim = base;
+        int victimWorth = Integer.MAX_VALUE;
+        for (int i = base; i < base + LONGS_PER_BUCKET; i += 2) {
+            long data = table[i + 1];
+            if (data == 0) {
+                victim = i;
+                break;
+            }
+            if ((table[i] ^ data) == key) {
+                // same position: keep a deeper result from this search unless the new one is exact
+                if (generation(data) == current && depth(data) > depth && bound != BOUND_EXACT) {
+                    return;
+                }
+                if (move == 0) {
+                    move = move(data);
+                }
+                victim = i;
+                break;
+            }
+            int age = (current - generation(data) + GENERATIONS) % GENERATIONS;
+            int worth = depth(data) - AGE_WEIGHT * age;
+            if (worth < victimWorth) {
+                victimWorth = worth;
+                victim = i;
+            }
+        }
+
+        long data = (move & 0xFFFFL)
+                | (score & 0xFFFFL) << 16
+                | (Math.max(depth, 0) & 0xFFL) << 32
+                | (long) bound << 40
+                | (long) current << 42;
+        table[victim] = key ^ data;
+        table[victim + 1] = data;
+        stores.increment();
+    }
+
+    private int bucket(long key) {
+        return ((int) key & bucketMask) * LONGS_PER_BUCKET;
+    }
+
+    /**
+     * Empties the table and resets its statistics.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        probes.reset();
+        hits.reset();
+        stores.reset();
+    }
+
+    public int capacity() {
+        return table.length / 2;
+    }
+
+    public long megabytes() {
+        return ((long) table.length * Long.BYTES) >> 20;
+    }
+
+    public long probes() {
+        return probes.sum();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long stores() {
+        return stores.sum();
+    }
+
+    /**
+     * @return hits as a fraction of probes, or 0 before the first probe
+     */
+    public double hitRate() {
+        long probeCount = probes();
+        return probeCount == 0 ? 0 : (double) hits() / probeCount;
+    }
+
+    /**
+     * Estimates how full the table is from a sample of its first buckets,
+     * counting only entries written during the current search.
+     *
+     * @return the fraction of entries in use, from 0 to 1
+     */
+    public double occupancy() {
+        int buckets = Math.min(SAMPLE_BUCKETS, bucketMask + 1);
+        int current = generation;
+        int used = 0;
+        for (int i = 0; i < buckets * LONGS_PER_BUCKET; i += 2) {
+            long data = table[i + 1];
+            if (data != 0 && generation(data) == current) {
+                used++;
+            }
+        }
+        return (double) used / (buckets * BUCKET_ENTRIES);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TranspositionTable{%d MB, entries=%d, occupancy=%.3f, hitRate=%.3f}",
+                megabytes(), capacity(), occupancy(), hitRate());
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 32 & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 40 & 3);
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 42 & (GENERATIONS - 1));
+    }
+}
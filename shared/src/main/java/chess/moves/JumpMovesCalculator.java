@@ -1,32 +1,29 @@
 package chess.moves;
 
 import chess.*;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
 
 public class JumpMovesCalculator {
 
-    public static Collection<ChessMove> calculate(
-            ChessBoard board, ChessPosition start, ChessPiece piece, int[][] directions) {
+    /**
+     * Sends each knight or king move from {@code from} to the sink.
+     *
+     * @return False if the sink stopped generation early
+     */
+    public static boolean generate(ChessBoard board, int from, ChessPiece piece, MoveSink sink) {
+        long attacks = piece.getPieceType() == ChessPiece.PieceType.KNIGHT
+                ? AttackTables.knight(from)
+                : AttackTables.king(from);
+        long targets = attacks & ~board.occupancy(piece.getTeamColor());
+        long captures = board.occupancy(piece.getTeamColor().opponent());
 
-        List<ChessMove> moves = new ArrayList<>();
-        int startRow = start.getRow();
-        int startCol = start.getColumn();
-
-        for (int[] offset : directions) {
-            int newRow = startRow + offset[0];
-            int newCol = startCol + offset[1];
-
-            if (newRow >= 1 && newRow <= 8 && newCol >= 1 && newCol <= 8) {
-                ChessPosition newPos = new ChessPosition(newRow, newCol);
-                ChessPiece target = board.getPiece(newPos);
-
-                if (target == null || target.getTeamColor() != piece.getTeamColor()) {
-                    moves.add(new ChessMove(start, newPos, null));
-                }
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = (captures & (1L << target)) != 0 ? Move.FLAG_CAPTURE : 0;
+            if (!sink.accept(Move.of(from, target) | flags)) {
+                return false;
             }
         }
-        return moves;
+        return true;
     }
 }
@@ -0,0 +1,225 @@
+package chess.moves;
+
+import chess.*;
+
+/**
+ * Generates only legal moves, without playing any of them to see whether
+ * they leave the king in check.
+ * <p>
+ * Before generating, it finds the pieces giving check and the pieces pinned
+ * to their own king. In double check only the king may move; in single
+ * check every other move must capture the checker or block its ray; a
+ * pinned piece may only move along its pin line. King moves are tested
+ * against attacks computed with the king lifted off the board, so it cannot
+ * step back along a checking ray.
+ * <p>
+ * Castling needs its right, empty squares up to the rook, and no attack on
+ * the king's start, crossing or end square. En passant can expose the king
+ * along the rank both pawns leave, so it is checked against the occupancy
+ * the capture would leave behind.
+ */
+public class LegalMoveGenerator {
+
+    // squares that must be empty, and squares the king crosses, for each right
+    private static final long WHITE_KINGSIDE_EMPTY = 0x60L;
+    private static final long WHITE_QUEENSIDE_EMPTY = 0x0EL;
+    private static final long WHITE_QUEENSIDE_PATH = 0x0CL;
+    private static final long BLACK_KINGSIDE_EMPTY = WHITE_KINGSIDE_EMPTY << 56;
+    private static final long BLACK_QUEENSIDE_EMPTY = WHITE_QUEENSIDE_EMPTY << 56;
+    private static final long BLACK_QUEENSIDE_PATH = WHITE_QUEENSIDE_PATH << 56;
+
+    /**
+     * Sends the legal moves of one team's pieces to {@code sink} as packed
+     * {@link Move} ints, stopping as soon as the sink returns false.
+     *
+     * @param board    the board to generate on
+     * @param color    the team to move
+     * @param fromMask bitboard of the start squares to generate for; -1 for all
+     * @param sink     receives the moves; a {@link MoveList} collects them
+     * @return False if the sink stopped generation early
+     */
+    public static boolean generate(ChessBoard board, ChessGame.TeamColor color, long fromMask,
+                                   MoveSink sink) {
+        ChessGame.TeamColor enemy = color.opponent();
+        long own = board.occupancy(color);
+        long occupied = board.occupied();
+        long kings = board.pieces(color, ChessPiece.PieceType.KING);
+
+        if (kings == 0) {
+            // without a king nothing can be pinned or checked
+            return generatePieces(board, color, own & fromMask, -1L, 0L, -1, sink)
+                    && generateEnPassant(board, color, fromMask, -1, sink);
+        }
+
+        int king = Long.numberOfTrailingZeros(kings);
+        if ((fromMask & kings) != 0 && !generateKingMoves(board, color, king, sink)) {
+            return false;
+        }
+
+        long checkers = board.attackersTo(king, enemy, occupied);
+        if (Long.bitCount(checkers) > 1) {
+            return true;
+        }
+        if (checkers == 0 && (fromMask & kings) != 0 && !generateCastling(board, color, king, sink)) {
+            return false;
+        }
+
+        long targetMask = -1L;
+        if (checkers != 0) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            targetMask = checkers | AttackTables.between(king, checker);
+        }
+
+        long pinned = pinnedPieces(board, color, king);
+        return generatePieces(board, color, own & ~kings & fromMask, targetMask, pinned, king, sink)
+                && generateEnPassant(board, color, fromMask, king, sink);
+    }
+
+    private static boolean generateCastling(ChessBoard board, ChessGame.TeamColor color, int king,
+                                            MoveSink sink) {
+        int rights = board.castlingRights();
+        if (color == ChessGame.TeamColor.WHITE) {
+            return tryCastle(board, color, king, rights & ChessBoard.WHITE_KINGSIDE, 6,
+                            WHITE_KINGSIDE_EMPTY, WHITE_KINGSIDE_EMPTY, sink)
+                    && tryCastle(board, color, king, rights & ChessBoard.WHITE_QUEENSIDE, 2,
+                            WHITE_QUEENSIDE_EMPTY, WHITE_QUEENSIDE_PATH, sink);
+        }
+        return tryCastle(board, color, king, rights & ChessBoard.BLACK_KINGSIDE, 62,
+                        BLACK_KINGSIDE_EMPTY, BLACK_KINGSIDE_EMPTY, sink)
+                && tryCastle(board, color, king, rights & ChessBoard.BLACK_QUEENSIDE, 58,
+                        BLACK_QUEENSIDE_EMPTY, BLACK_QUEENSIDE_PATH, sink);
+    }
+
+    private static boolean tryCastle(ChessBoard board, ChessGame.TeamColor color, int king, int right,
+                                     int target, long empty, long path, MoveSink sink) {
+        if (right == 0 || (board.occupied() & empty) != 0) {
+            return true;
+        }
+        ChessGame.TeamColor enemy = color.opponent();
+        while (path != 0) {
+            int square = Long.numberOfTrailingZeros(path);
+            path &= path - 1;
+            if (board.isSquareAttacked(square, enemy)) {
+                return true;
+            }
+        }
+        return sink.accept(Move.of(king, target) | Move.FLAG_CASTLE);
+    }
+
+    /**
+     * Pins and check evasion are both covered by testing the king against
+     * the occupancy after the capture, with the captured pawn ignored.
+     */
+    private static boolean generateEnPassant(ChessBoard board, ChessGame.TeamColor color, long fromMask,
+                                             int king, MoveSink sink) {
+        int target = board.enPassantSquare();
+        // white only ever captures onto rank 6 and black onto rank 3
+        if (target < 0 || (target >= 32) != (color == ChessGame.TeamColor.WHITE)) {
+            return true;
+        }
+        long pawns = AttackTables.pawn(color.opponent(), target)
+                & board.pieces(color, ChessPiece.PieceType.PAWN) & fromMask;
+        long victim = 1L << (target ^ 8);
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            if (king >= 0) {
+                long after = (board.occupied() ^ (1L << from) ^ victim) | 1L << target;
+                if ((board.attackersTo(king, color.opponent(), after) & ~victim) != 0) {
+                    continue;
+                }
+            }
+            if (!sink.accept(Move.of(from, target) | Move.FLAG_CAPTURE | Move.FLAG_EN_PASSANT)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return bitboard of the team's pieces that are the only blocker between
+     * their king and an enemy rook, bishop or queen
+     */
+    private static long pinnedPieces(ChessBoard board, ChessGame.TeamColor color, int king) {
+        ChessGame.TeamColor enemy = color.opponent();
+        long queens = board.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        long snipers = (AttackTables.rook(king, 0L) & (board.pieces(enemy, ChessPiece.PieceType.ROOK) | queens))
+                | (AttackTables.bishop(king, 0L) & (board.pieces(enemy, ChessPiece.PieceType.BISHOP) | queens));
+
+        long pinned = 0L;
+        long occupied = board.occupied();
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = AttackTables.between(king, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & board.occupancy(color);
+            }
+        }
+        return pinned;
+    }
+
+    private static boolean generateKingMoves(ChessBoard board, ChessGame.TeamColor color, int king,
+                                             MoveSink sink) {
+        ChessGame.TeamColor enemy = color.opponent();
+        long withoutKing = board.occupied() & ~(1L << king);
+        long targets = AttackTables.king(king) & ~board.occupancy(color);
+        long captures = board.occupancy(enemy);
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (board.attackersTo(target, enemy, withoutKing) == 0
+                    && !addMove(sink, king, target, captures)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean generatePieces(ChessBoard board, ChessGame.TeamColor color, long pieces,
+                                          long targetMask, long pinned, int king, MoveSink sink) {
+        long own = board.occupancy(color);
+        long captures = board.occupancy(color.opponent());
+        long occupied = board.occupied();
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+
+            long allowed = targetMask;
+            if ((pinned & (1L << from)) != 0) {
+                allowed &= AttackTables.line(king, from);
+            }
+
+            ChessPiece piece = board.pieceAt(from);
+            long targets = switch (piece.getPieceType()) {
+                case PAWN -> PawnMovesCalculator.targets(board, color, from);
+                case KNIGHT -> AttackTables.knight(from);
+                case BISHOP -> AttackTables.bishop(from, occupied);
+                case ROOK -> AttackTables.rook(from, occupied);
+                case QUEEN -> AttackTables.queen(from, occupied);
+                case KING -> AttackTables.king(from);
+            };
+            targets &= ~own & allowed;
+
+            if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+                if (!PawnMovesCalculator.addMoves(sink, color, from, targets, captures)) {
+                    return false;
+                }
+            } else {
+                while (targets != 0) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+                    if (!addMove(sink, from, to, captures)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean addMove(MoveSink sink, int from, int to, long captures) {
+        int flags = (captures & (1L << to)) != 0 ? Move.FLAG_CAPTURE : 0;
+        return sink.accept(Move.of(from, to) | flags);
+    }
+}
@@ -0,0 +1,105 @@
+package chess.moves;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+/**
+ * Packs a move into an int so generators and search code can store moves in
+ * primitive arrays instead of allocating {@link ChessMove} objects.
+ * <p>
+ * Layout: bits 0-5 hold the start square and bits 6-11 the end square
+ * (0 for a1 through 63 for h8), bits 12-14 the promotion type (0 for none,
+ * otherwise {@link ChessPiece.PieceType#ordinal()} + 1) and bits 15 and up
+ * hold flags. The low 15 bits fit in a short and identify the move; flags are
+ * extra facts the generator already knew, such as whether it captures.
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int FLAG_CAPTURE = 1 << 15;
+    public static final int FLAG_EN_PASSANT = 1 << 16;
+    public static final int FLAG_CASTLE = 1 << 17;
+
+    private static final int SQUARE_MASK = 63;
+    private static final int IDENTITY_MASK = (1 << 15) - 1;
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    public static int of(int from, int to) {
+        return from | to << 6;
+    }
+
+    public static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionBits = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | to << 6 | promotionBits << 12 | flags;
+    }
+
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return move >>> 6 & SQUARE_MASK;
+    }
+
+    /**
+     * @return the promotion type, or null if the move does not promote
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotionBits = move >>> 12 & 7;
+        return promotionBits == 0 ? null : TYPES[promotionBits - 1];
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & FLAG_CAPTURE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & FLAG_EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (move & FLAG_CASTLE) != 0;
+    }
+
+    /**
+     * @return the move without its flags, which is all that
+     * {@link #fromChessMove} can recover
+     */
+    public static int identity(int move) {
+        return move & IDENTITY_MASK;
+    }
+
+    /**
+     * @return True if both moves have the same squares and promotion,
+     * ignoring flags
+     */
+    public static boolean sameMove(int a, int b) {
+        return ((a ^ b) & IDENTITY_MASK) == 0;
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.fromSquare(from(move)), ChessPosition.fromSquare(to(move)),
+                promotion(move));
+    }
+
+    /**
+     * Packs a {@link ChessMove}. A ChessMove carries no flags, so the result
+     * has none set; compare it with generated moves through
+     * {@link #sameMove(int, int)}.
+     *
+     * @throws IndexOutOfBoundsException if either position is off the board
+     */
+    public static int fromChessMove(ChessMove move) {
+        return of(move.getStartPosition().getSquare(), move.getEndPosition().getSquare(),
+                move.getPromotionPiece(), 0);
+    }
+
+    public static String toString(int move) {
+        return toChessMove(move).toString();
+    }
+}
@@ -0,0 +1,101 @@
+package chess.moves;
+
+import chess.ChessMove;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A reusable, growable list of packed {@link Move} ints. Generators append
+ * to it and callers {@link #clear()} it between positions, so filling one
+ * allocates nothing once its array is big enough.
+ */
+public final class MoveList implements MoveSink {
+
+    /**
+     * Enough for any legal chess position, which has at most 218 moves.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(8, size * 2));
+        }
+        moves[size++] = move;
+    }
+
+    @Override
+    public boolean accept(int move) {
+        add(move);
+        return true;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return True if the list holds a move with the same squares and
+     * promotion, ignoring flags
+     */
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (Move.sameMove(moves[i], move)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a copy of the moves, trimmed to the list's size
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    /**
+     * Converts every move and adds it to a collection.
+     */
+    public void addTo(Collection<ChessMove> out) {
+        for (int i = 0; i < size; i++) {
+            out.add(Move.toChessMove(moves[i]));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(i == 0 ? "" : ", ").append(Move.toString(moves[i]));
+        }
+        return sb.append("]").toString();
+    }
+}
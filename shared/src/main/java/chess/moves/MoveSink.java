@@ -0,0 +1,16 @@
+package chess.moves;
+
+/**
+ * Receives packed {@link Move} ints from a generator as they are found, so
+ * callers that only count, filter or look for one move never build a
+ * collection. Returning false stops the generator early.
+ */
+@FunctionalInterface
+public interface MoveSink {
+
+    /**
+     * @param move the generated move
+     * @return True to keep generating, false to stop
+     */
+    boolean accept(int move);
+}
@@ -2,80 +2,68 @@ package chess.moves;
 
 import chess.*;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-
 public class PawnMovesCalculator {
 
-    public static Collection<ChessMove> calculate(
-            ChessBoard board, ChessPosition start, ChessPiece piece) {
-        List<ChessMove> moves = new ArrayList<>();
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT
+    };
 
-        int startRow = start.getRow();
-        int startCol = start.getColumn();
-        int direction;
-        if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) {
-            direction = 1;
-        }
-        else {
-            direction = -1;
-        }
-        int frontRow = startRow + direction;
-        if (frontRow >= 1 && frontRow <= 8) {
-            ChessPosition forwardPos = new ChessPosition(frontRow, startCol);
-            if (board.getPiece(forwardPos) == null) {
-                addPawnMove(moves, start, forwardPos, piece);
-
-                int sRank;
-                if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) {
-                    sRank = 2;
-                }
-                else {
-                    sRank = 7;
-                }
-                if (startRow == sRank) {
-                    int doubleRow = startRow + 2 * direction;
-                    ChessPosition doublePos = new ChessPosition(doubleRow, startCol);
-                    if (board.getPiece(doublePos) == null) {
-                        moves.add(new ChessMove(start, doublePos, null));
-                    }
-                }
-            }
-        }
+    private static final long WHITE_LAST_RANK = 0xFF00_0000_0000_0000L;
+    private static final long BLACK_LAST_RANK = 0xFFL;
 
-        int[][] captures = { {direction, -1}, {direction, 1} };
-        for (int[] cap : captures) {
-            int newRow = startRow + cap[0];
-            int newCol = startCol + cap[1];
+    /**
+     * Sends each pawn push, double push and capture from {@code from} to the
+     * sink, expanding moves to the last rank into every promotion.
+     *
+     * @return False if the sink stopped generation early
+     */
+    public static boolean generate(ChessBoard board, int from, ChessPiece piece, MoveSink sink) {
+        ChessGame.TeamColor color = piece.getTeamColor();
+        return addMoves(sink, color, from, targets(board, color, from), board.occupancy(color.opponent()));
+    }
 
-            if (newRow >= 1 && newRow <= 8 && newCol >= 1 && newCol <= 8) {
-                ChessPosition capturePos = new ChessPosition(newRow, newCol);
-                ChessPiece target = board.getPiece(capturePos);
-                if (target != null && target.getTeamColor() != piece.getTeamColor()) {
-                    addPawnMove(moves, start, capturePos, piece);
-                }
-            }
+    /**
+     * @return a bitboard of the squares a pawn on {@code from} can push,
+     * double push or capture to, ignoring pins, checks and en passant
+     */
+    static long targets(ChessBoard board, ChessGame.TeamColor color, int from) {
+        long empty = ~board.occupied();
+        long pawn = 1L << from;
+        long pushes;
+        if (color == ChessGame.TeamColor.WHITE) {
+            long single = (pawn << 8) & empty;
+            pushes = single | ((single & 0x0000_0000_00FF_0000L) << 8 & empty);
+        } else {
+            long single = (pawn >>> 8) & empty;
+            pushes = single | ((single & 0x0000_FF00_0000_0000L) >>> 8 & empty);
         }
-        return moves;
+        return pushes | (AttackTables.pawn(color, from) & board.occupancy(color.opponent()));
     }
 
-    private static void addPawnMove(List<ChessMove> moves, ChessPosition start, ChessPosition end, ChessPiece piece) {
-        int promoRow;
-        if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) {
-            promoRow = 8;
-        }
-        else {
-            promoRow = 1;
-        }
-        if (end.getRow() == promoRow) {
-            moves.add(new ChessMove(start, end, ChessPiece.PieceType.QUEEN));
-            moves.add(new ChessMove(start, end, ChessPiece.PieceType.BISHOP));
-            moves.add(new ChessMove(start, end, ChessPiece.PieceType.ROOK));
-            moves.add(new ChessMove(start, end, ChessPiece.PieceType.KNIGHT));
-        }
-        else {
-            moves.add(new ChessMove(start, end, null));
+    /**
+     * Sends a pawn move from {@code from} to each square in {@code targets},
+     * flagging those in {@code captures} and expanding moves to the last
+     * rank into every promotion.
+     *
+     * @return False if the sink stopped generation early
+     */
+    static boolean addMoves(MoveSink sink, ChessGame.TeamColor color, int from, long targets, long captures) {
+        long lastRank = color == ChessGame.TeamColor.WHITE ? WHITE_LAST_RANK : BLACK_LAST_RANK;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = (captures & (1L << to)) != 0 ? Move.FLAG_CAPTURE : 0;
+            if ((lastRank & (1L << to)) != 0) {
+                for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                    if (!sink.accept(Move.of(from, to, promotion, flags))) {
+                        return false;
+                    }
+                }
+            } else if (!sink.accept(Move.of(from, to) | flags)) {
+                return false;
+            }
         }
+        return true;
     }
 }
@@ -1,42 +1,32 @@
 package chess.moves;
 
 import chess.*;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
 
 public class SlidingMovesCalculator {
 
-    public static Collection<ChessMove> calculate(
-            ChessBoard board, ChessPosition start, ChessPiece piece, int[][] directions) {
-
-        List<ChessMove> moves = new ArrayList<>();
-
-        for (int[] dir : directions) {
-            int row = start.getRow();
-            int col = start.getColumn();
-
-            while (true) {
-                row += dir[0];
-                col += dir[1];
-
-                if (row < 1 || row > 8 || col < 1 || col > 8) {
-                    break;
-                }
-
-                ChessPosition newPos = new ChessPosition(row, col);
-                ChessPiece target = board.getPiece(newPos);
-
-                if (target == null) {
-                    moves.add(new ChessMove(start, newPos, null));
-                } else {
-                    if (target.getTeamColor() != piece.getTeamColor()) {
-                        moves.add(new ChessMove(start, newPos, null));
-                    }
-                    break;
-                }
+    /**
+     * Sends each bishop, rook or queen move from {@code from} to the sink.
+     *
+     * @return False if the sink stopped generation early
+     */
+    public static boolean generate(ChessBoard board, int from, ChessPiece piece, MoveSink sink) {
+        long occupied = board.occupied();
+        long attacks = switch (piece.getPieceType()) {
+            case ROOK -> AttackTables.rook(from, occupied);
+            case BISHOP -> AttackTables.bishop(from, occupied);
+            default -> AttackTables.queen(from, occupied);
+        };
+        long targets = attacks & ~board.occupancy(piece.getTeamColor());
+        long captures = board.occupancy(piece.getTeamColor().opponent());
+
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = (captures & (1L << target)) != 0 ? Move.FLAG_CAPTURE : 0;
+            if (!sink.accept(Move.of(from, target) | flags)) {
+                return false;
             }
         }
-        return moves;
+        return true;
     }
 }
@@ -0,0 +1,170 @@
+package chess.tablebase;
+
+import chess.ChessPiece;
+
+/**
+ * The endings a {@link Tablebase} covers: a lone king against a king and
+ * one or two pieces. Tables are built with white as the stronger side; a
+ * probe with black as the stronger side flips the board first.
+ * <p>
+ * Each table entry is one placement of the pieces plus the side to move,
+ * indexed by the stronger king, the lone king and then the extra pieces, in
+ * that order, one square each. Positions that are mirror images of each
+ * other share an entry: without pawns the stronger king is moved into the
+ * a1-d1-d4 triangle with the board's eight symmetries, and with a pawn it is
+ * moved onto files a-d by mirroring files only. A position with the king
+ * on the a1-d4 diagonal and its reflection in that diagonal keep separate
+ * entries; see {@link #twin(int)}.
+ */
+public enum Material {
+    KQK(ChessPiece.PieceType.QUEEN),
+    KRK(ChessPiece.PieceType.ROOK),
+    KPK(ChessPiece.PieceType.PAWN),
+    KBNK(ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT);
+
+    // TRANSFORMS[t][square]: identity, mirror files, mirror ranks, both, and
+    // the same four after reflecting in the a1-h8 diagonal
+    private static final int[][] TRANSFORMS = new int[8][64];
+    private static final int[] TRIANGLE_SLOT = new int[64];
+    private static final int[] TRIANGLE_SQUARE = new int[10];
+
+    static {
+        for (int t = 0; t < 8; t++) {
+            for (int square = 0; square < 64; square++) {
+                int rank = square >> 3;
+                int file = square & 7;
+                if ((t & 1) != 0) {
+                    file = 7 - file;
+                }
+                if ((t & 2) != 0) {
+                    rank = 7 - rank;
+                }
+                TRANSFORMS[t][square] = (t & 4) != 0 ? file * 8 + rank : rank * 8 + file;
+            }
+        }
+        int slot = 0;
+        for (int square = 0; square < 64; square++) {
+            TRIANGLE_SLOT[square] = -1;
+            int rank = square >> 3;
+            int file = square & 7;
+            if (file <= 3 && rank <= file) {
+                TRIANGLE_SQUARE[slot] = square;
+                TRIANGLE_SLOT[square] = slot++;
+            }
+        }
+    }
+
+    private final ChessPiece.PieceType[] extras;
+    private final boolean pawns;
+    private final int kingSlots;
+    private final int size;
+
+    Material(ChessPiece.PieceType... extras) {
+        this.extras = extras;
+        boolean hasPawn = false;
+        for (ChessPiece.PieceType type : extras) {
+            hasPawn |= type == ChessPiece.PieceType.PAWN;
+        }
+        this.pawns = hasPawn;
+        this.kingSlots = hasPawn ? 32 : 10;
+        this.size = 2 * kingSlots * 64 << 6 * extras.length;
+    }
+
+    /**
+     * @return the stronger side's pieces besides its king
+     */
+    public ChessPiece.PieceType[] extras() {
+        return extras.clone();
+    }
+
+    /**
+     * @return the number of entries, which is also the table file's size
+     *         in bytes
+     */
+    public int size() {
+        return size;
+    }
+
+    public String fileName() {
+        return name() + ".tb";
+    }
+
+    int pieceCount() {
+        return 2 + extras.length;
+    }
+
+    ChessPiece.PieceType extra(int i) {
+        return extras[i];
+    }
+
+    /**
+     * Finds the entry for a position.
+     *
+     * @param squares stronger king, lone king, then the extras in
+     *                {@link #extras()} order, with white as the stronger
+     *                side
+     * @param stm     0 when the stronger side is to move, 1 otherwise
+     */
+    int encode(int[] squares, int stm) {
+        int transform = 0;
+        int kingSlot;
+        if (pawns) {
+            if ((squares[0] & 7) > 3) {
+                transform = 1;
+            }
+            int king = TRANSFORMS[transform][squares[0]];
+            kingSlot = (king >> 3) * 4 + (king & 7);
+        } else {
+            while (TRIANGLE_SLOT[TRANSFORMS[transform][squares[0]]] < 0) {
+                transform++;
+            }
+            kingSlot = TRIANGLE_SLOT[TRANSFORMS[transform][squares[0]]];
+        }
+
+        int[] map = TRANSFORMS[transform];
+        int index = stm * kingSlots + kingSlot;
+        for (int i = 1; i < pieceCount(); i++) {
+            index = index * 64 + map[squares[i]];
+        }
+        return index;
+    }
+
+    /**
+     * Finds the entry for the reflection of a position in the a1-h8
+     * diagonal, when that is a different entry. It is, for tables without
+     * pawns, whenever the stronger king is on the diagonal, because both
+     * positions are then already in canonical form.
+     *
+     * @return the other entry, or -1 if there is none
+     */
+    int twin(int index) {
+        if (pawns) {
+            return -1;
+        }
+        int pieceBits = 6 * (pieceCount() - 1);
+        int king = TRIANGLE_SQUARE[(index >>> pieceBits) % kingSlots];
+        if (king >> 3 != (king & 7)) {
+            return -1;
+        }
+        int twin = index >>> pieceBits << pieceBits;
+        for (int shift = 0; shift < pieceBits; shift += 6) {
+            twin |= TRANSFORMS[4][index >>> shift & 63] << shift;
+        }
+        return twin == index ? -1 : twin;
+    }
+
+    /**
+     * Fills {@code squares} with the position of an entry.
+     *
+     * @return the side to move, 0 for the stronger side
+     */
+    int decode(int index, int[] squares) {
+        for (int i = pieceCount() - 1; i >= 1; i--) {
+            squares[i] = index & 63;
+            index >>>= 6;
+        }
+        int kingSlot = index % kingSlots;
+        squares[0] = pawns ? (kingSlot / 4) * 8 + kingSlot % 4 : TRIANGLE_SQUARE[kingSlot];
+        return index / kingSlots;
+    }
+}
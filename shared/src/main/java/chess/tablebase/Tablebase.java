@@ -0,0 +1,154 @@
+package chess.tablebase;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Perfect results for the endings in {@link Material}, read from table
+ * files written by {@link TablebaseGenerator}. The files are memory-mapped,
+ * so a probe is a single byte read from the page cache.
+ * <p>
+ * Each entry is one byte: {@link #DRAW}, {@link #INVALID} for placements
+ * that cannot occur in a game, or one more than the number of plies to
+ * mate. An odd number of plies is a win for the side to move and an even
+ * number a loss. Castling rights are not part of the tables; in these
+ * endings they never change the result.
+ */
+public final class Tablebase {
+
+    static final byte DRAW = 0;
+    static final byte INVALID = (byte) 0xFF;
+    static final int MAX_PLIES = 0xFD - 1;
+
+    private final Map<Material, MappedByteBuffer> tables;
+
+    private Tablebase(Map<Material, MappedByteBuffer> tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * Maps every table file found in {@code directory}. Endings without a
+     * file are not covered.
+     *
+     * @throws IOException if a file cannot be read or has the wrong size
+     */
+    public static Tablebase open(Path directory) throws IOException {
+        Map<Material, MappedByteBuffer> tables = new EnumMap<>(Material.class);
+        for (Material material : Material.values()) {
+            Path file = directory.resolve(material.fileName());
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() != material.size()) {
+                    throw new IOException("Not a " + material + " table: " + file);
+                }
+                tables.put(material, channel.map(FileChannel.MapMode.READ_ONLY, 0, material.size()));
+            }
+        }
+        return new Tablebase(tables);
+    }
+
+    /**
+     * @return the endings this tablebase has tables for
+     */
+    public Set<Material> materials() {
+        return Collections.unmodifiableSet(tables.keySet());
+    }
+
+    public TablebaseResult probe(ChessGame game) {
+        return probe(game.getBoard(), game.getTeamTurn());
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param board  the position
+     * @param toMove the side to move
+     * @return the result for the side to move; a draw when neither side has
+     *         mating material (bare kings, or one minor piece); otherwise
+     *         {@code null} when the ending is not covered or the position
+     *         could not arise in a game
+     */
+    public TablebaseResult probe(ChessBoard board, ChessGame.TeamColor toMove) {
+        ChessGame.TeamColor strong = null;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            if (board.occupancy(color) != board.pieces(color, ChessPiece.PieceType.KING)) {
+                if (strong != null) {
+                    return null;
+                }
+                strong = color;
+            }
+        }
+        if (strong == null) {
+            return new TablebaseResult(TablebaseResult.Outcome.DRAW, 0);
+        }
+        if (Long.bitCount(board.occupancy(strong)) == 2
+                && (board.pieces(strong, ChessPiece.PieceType.BISHOP)
+                | board.pieces(strong, ChessPiece.PieceType.KNIGHT)) != 0) {
+            return new TablebaseResult(TablebaseResult.Outcome.DRAW, 0);
+        }
+
+        Material material = materialOf(board, strong);
+        MappedByteBuffer table = material == null ? null : tables.get(material);
+        if (table == null) {
+            return null;
+        }
+
+        // tables have white as the stronger side, so flip the board when it is black
+        int flip = strong == ChessGame.TeamColor.WHITE ? 0 : 56;
+        int[] squares = new int[material.pieceCount()];
+        squares[0] = Long.numberOfTrailingZeros(board.pieces(strong, ChessPiece.PieceType.KING)) ^ flip;
+        squares[1] = Long.numberOfTrailingZeros(board.pieces(strong.opponent(), ChessPiece.PieceType.KING)) ^ flip;
+        for (int i = 2; i < squares.length; i++) {
+            squares[i] = Long.numberOfTrailingZeros(board.pieces(strong, material.extra(i - 2))) ^ flip;
+        }
+        return result(table.get(material.encode(squares, toMove == strong ? 0 : 1)));
+    }
+
+    private static Material materialOf(ChessBoard board, ChessGame.TeamColor strong) {
+        long extras = board.occupancy(strong) & ~board.pieces(strong, ChessPiece.PieceType.KING);
+        for (Material material : Material.values()) {
+            if (Long.bitCount(extras) != material.pieceCount() - 2) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < material.pieceCount() - 2; i++) {
+                matches &= Long.bitCount(board.pieces(strong, material.extra(i))) == 1;
+            }
+            if (matches) {
+                return material;
+            }
+        }
+        return null;
+    }
+
+    static TablebaseResult result(byte entry) {
+        if (entry == DRAW) {
+            return new TablebaseResult(TablebaseResult.Outcome.DRAW, 0);
+        }
+        if (entry == INVALID) {
+            return null;
+        }
+        int plies = Byte.toUnsignedInt(entry) - 1;
+        return new TablebaseResult(plies % 2 == 1 ? TablebaseResult.Outcome.WIN : TablebaseResult.Outcome.LOSS,
+                plies);
+    }
+
+    @Override
+    public String toString() {
+        return "Tablebase" + tables.keySet();
+    }
+}
@@ -0,0 +1,527 @@
+package chess.tablebase;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.moves.AttackTables;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Builds {@link Tablebase} files by retrograde analysis.
+ * <p>
+ * Every entry is first marked invalid, mated, stalemated or unknown. Then,
+ * one ply at a time, the positions lost in {@code n} plies are unmoved to
+ * find the positions won in {@code n + 1}, and those are unmoved to find
+ * candidates for a loss in {@code n + 2}: a candidate is lost only if every
+ * move from it reaches a known win for the opponent. Entries still unknown
+ * at the end are draws. Moves that leave the table, captures of the
+ * stronger side's pieces and minor promotions, reach drawn endings; queen
+ * and rook promotions from KPK are looked up in the KQK and KRK tables,
+ * which are generated first.
+ * <p>
+ * Each pass over a table is split across a {@link ForkJoinPool}. Within a
+ * pass the workers only ever turn unknown entries into one fixed value, so
+ * racing writes to an entry always agree and need no locking.
+ * <p>
+ * Usage: {@code TablebaseGenerator <directory> [material...]}
+ */
+public final class TablebaseGenerator {
+
+    private static final byte UNKNOWN = Tablebase.DRAW;
+    // stalemates are final draws and must not be taken for unknown entries while generating
+    private static final byte STALEMATE = (byte) 0xFE;
+    private static final int CHUNK = 1 << 14;
+
+    private static final int IN_TABLE = 0;
+    private static final int DRAWN_ENDING = 1;
+    private static final int QUEEN_PROMOTION = 2;
+    private static final int ROOK_PROMOTION = 3;
+
+    private final ForkJoinPool pool;
+    private final Map<Material, byte[]> tables = new EnumMap<>(Material.class);
+
+    public TablebaseGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public TablebaseGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Generates a table, or returns the one generated earlier.
+     *
+     * @return the table's entries; callers must not modify it
+     */
+    public synchronized byte[] generate(Material material) {
+        byte[] table = tables.get(material);
+        if (table == null) {
+            if (material == Material.KPK) {
+                generate(Material.KQK);
+                generate(Material.KRK);
+            }
+            table = new Generation(material).run();
+            tables.put(material, table);
+        }
+        return table;
+    }
+
+    /**
+     * Generates a table and writes it to {@code directory}.
+     *
+     * @return the file written
+     */
+    public Path write(Material material, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return Files.write(directory.resolve(material.fileName()), generate(material));
+    }
+
+    private static byte entry(int plies) {
+        if (plies > Tablebase.MAX_PLIES) {
+            throw new IllegalStateException("Distance to mate does not fit in a table entry: " + plies);
+        }
+        return (byte) (plies + 1);
+    }
+
+    private static boolean isWin(byte entry) {
+        return entry != UNKNOWN && entry != STALEMATE && entry != Tablebase.INVALID
+                && (Byte.toUnsignedInt(entry) - 1) % 2 == 1;
+    }
+
+    private static boolean isLoss(byte entry) {
+        return entry != UNKNOWN && entry != STALEMATE && entry != Tablebase.INVALID
+                && (Byte.toUnsignedInt(entry) - 1) % 2 == 0;
+    }
+
+    private final class Generation {
+
+        private final Material material;
+        private final byte[] values;
+        // for KPK: the fastest win by promoting, per entry with white to move
+        private final byte[] promotionWins;
+        private final LongAccumulator longestPromotionWin = new LongAccumulator(Math::max, 0);
+
+        Generation(Material material) {
+            this.material = material;
+            this.values = new byte[material.size()];
+            this.promotionWins = material == Material.KPK ? new byte[material.size()] : null;
+        }
+
+        byte[] run() {
+            forEachRange((from, to) -> {
+                Scratch position = new Scratch(material);
+                for (int i = from; i < to; i++) {
+                    initialize(position, i);
+                }
+            });
+
+            for (int plies = 0; ; plies += 2) {
+                long wins = winsFrom(plies);
+                long losses = lossesFrom(plies + 1);
+                if (wins == 0 && losses == 0 && plies + 1 >= longestPromotionWin.get()) {
+                    break;
+                }
+            }
+
+            forEachRange((from, to) -> {
+                for (int i = from; i < to; i++) {
+                    if (values[i] == STALEMATE) {
+                        values[i] = Tablebase.DRAW;
+                    }
+                }
+            });
+            return values;
+        }
+
+        private void initialize(Scratch position, int index) {
+            position.load(index);
+            if (!position.isValid()) {
+                values[index] = Tablebase.INVALID;
+                return;
+            }
+            position.generateChildren();
+            if (position.childCount == 0) {
+                values[index] = position.isInCheck() ? entry(0) : STALEMATE;
+                return;
+            }
+
+            if (promotionWins != null) {
+                int fastest = Integer.MAX_VALUE;
+                for (int i = 0; i < position.childCount; i++) {
+                    byte child = switch (position.childKinds[i]) {
+                        case QUEEN_PROMOTION -> tables.get(Material.KQK)[position.children[i]];
+                        case ROOK_PROMOTION -> tables.get(Material.KRK)[position.children[i]];
+                        default -> UNKNOWN;
+                    };
+                    if (isLoss(child)) {
+                        fastest = Math.min(fastest, Byte.toUnsignedInt(child));
+                    }
+                }
+                if (fastest != Integer.MAX_VALUE) {
+                    // the child's entry is its plies plus one, which is exactly this position's plies
+                    promotionWins[index] = entry(fastest);
+                    longestPromotionWin.accumulate(fastest);
+                }
+            }
+        }
+
+        /**
+         * Marks every unknown position that can move into a loss in
+         * {@code plies} as a win in {@code plies + 1}.
+         */
+        private long winsFrom(int plies) {
+            byte loss = entry(plies);
+            byte win = entry(plies + 1);
+            LongAdder found = new LongAdder();
+            forEachRange((from, to) -> {
+                Scratch position = new Scratch(material);
+                int[] predecessors = new int[256];
+                for (int i = from; i < to; i++) {
+                    if (promotionWins != null && promotionWins[i] == win && values[i] == UNKNOWN) {
+                        values[i] = win;
+                        found.increment();
+                    }
+                    if (values[i] != loss) {
+                        continue;
+                    }
+                    position.load(i);
+                    int count = position.predecessors(predecessors);
+                    for (int p = 0; p < count; p++) {
+                        if (values[predecessors[p]] == UNKNOWN) {
+                            values[predecessors[p]] = win;
+                            found.increment();
+                        }
+                    }
+                }
+            });
+            return found.sum();
+        }
+
+        /**
+         * Marks every unknown position that can move into a win in
+         * {@code plies}, and only into wins for the opponent, as a loss in
+         * {@code plies + 1}.
+         */
+        private long lossesFrom(int plies) {
+            byte win = entry(plies);
+            byte loss = entry(plies + 1);
+            LongAdder found = new LongAdder();
+            forEachRange((from, to) -> {
+                Scratch position = new Scratch(material);
+                Scratch candidate = new Scratch(material);
+                int[] predecessors = new int[256];
+                for (int i = from; i < to; i++) {
+                    if (values[i] != win) {
+                        continue;
+                    }
+                    position.load(i);
+                    int count = position.predecessors(predecessors);
+                    for (int p = 0; p < count; p++) {
+                        int index = predecessors[p];
+                        if (values[index] == UNKNOWN && allMovesLose(candidate, index)) {
+                            values[index] = loss;
+                            found.increment();
+                        }
+                    }
+                }
+            });
+            return found.sum();
+        }
+
+        private boolean allMovesLose(Scratch position, int index) {
+            position.load(index);
+            position.generateChildren();
+            for (int i = 0; i < position.childCount; i++) {
+                if (position.childKinds[i] != IN_TABLE || !isWin(values[position.children[i]])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void forEachRange(RangeBody body) {
+            pool.invoke(new RangeTask(0, values.length, body));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeBody {
+        void run(int from, int to);
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final RangeBody body;
+
+        RangeTask(int from, int to, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, body), new RangeTask(mid, to, body));
+        }
+    }
+
+    /**
+     * One decoded position with its moves and unmoves, reused across
+     * entries by a single worker. Index 0 is the white (stronger) king,
+     * 1 the black king and 2 on the extra white pieces.
+     */
+    private static final class Scratch {
+
+        private final Material material;
+        private final int pieces;
+        private final int[] squares;
+        private final int[] moved;
+        private final int[] promoted = new int[3];
+        private int toMove;
+
+        final int[] children = new int[64];
+        final int[] childKinds = new int[64];
+        int childCount;
+
+        Scratch(Material material) {
+            this.material = material;
+            this.pieces = material.pieceCount();
+            this.squares = new int[pieces];
+            this.moved = new int[pieces];
+        }
+
+        void load(int index) {
+            toMove = material.decode(index, squares);
+        }
+
+        private long occupied() {
+            long occupied = 0;
+            for (int i = 0; i < pieces; i++) {
+                occupied |= 1L << squares[i];
+            }
+            return occupied;
+        }
+
+        private long attacks(int piece, int square, long occupied) {
+            if (piece < 2) {
+                return AttackTables.king(square);
+            }
+            return switch (material.extra(piece - 2)) {
+                case QUEEN -> AttackTables.queen(square, occupied);
+                case ROOK -> AttackTables.rook(square, occupied);
+                case BISHOP -> AttackTables.bishop(square, occupied);
+                case KNIGHT -> AttackTables.knight(square);
+                case PAWN -> AttackTables.pawn(ChessGame.TeamColor.WHITE, square);
+                case KING -> AttackTables.king(square);
+            };
+        }
+
+        private boolean isPawn(int piece) {
+            return piece >= 2 && material.extra(piece - 2) == ChessPiece.PieceType.PAWN;
+        }
+
+        /**
+         * @param captured a white piece to leave out, or -1
+         */
+        private boolean attackedByWhite(int target, long occupied, int captured) {
+            if ((AttackTables.king(squares[0]) & 1L << target) != 0) {
+                return true;
+            }
+            for (int i = 2; i < pieces; i++) {
+                if (i != captured && (attacks(i, squares[i], occupied) & 1L << target) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isValid() {
+            long occupied = 0;
+            for (int i = 0; i < pieces; i++) {
+                if ((occupied & 1L << squares[i]) != 0) {
+                    return false;
+                }
+                occupied |= 1L << squares[i];
+                if (isPawn(i) && (squares[i] < 8 || squares[i] >= 56)) {
+                    return false;
+                }
+            }
+            if ((AttackTables.king(squares[0]) & 1L << squares[1]) != 0) {
+                return false;
+            }
+            // with white to move, black must not be left in check
+            return toMove == 1 || !attackedByWhite(squares[1], occupied, -1);
+        }
+
+        /**
+         * White's only attacker is the black king, which can never give
+         * check, so only black can be in check.
+         */
+        boolean isInCheck() {
+            return toMove == 1 && attackedByWhite(squares[1], occupied(), -1);
+        }
+
+        void generateChildren() {
+            childCount = 0;
+            long occupied = occupied();
+            if (toMove == 0) {
+                long kingTargets = AttackTables.king(squares[0]) & ~occupied & ~AttackTables.king(squares[1]);
+                addMoves(0, kingTargets);
+                for (int i = 2; i < pieces; i++) {
+                    if (isPawn(i)) {
+                        addPawnMoves(i, occupied);
+                    } else {
+                        addMoves(i, attacks(i, squares[i], occupied) & ~occupied);
+                    }
+                }
+            } else {
+                long withoutKing = occupied & ~(1L << squares[1]);
+                long targets = AttackTables.king(squares[1]) & ~AttackTables.king(squares[0]);
+                while (targets != 0) {
+                    int target = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+                    int captured = -1;
+                    for (int i = 2; i < pieces; i++) {
+                        if (squares[i] == target) {
+                            captured = i;
+                        }
+                    }
+                    if (attackedByWhite(target, withoutKing, captured)) {
+                        continue;
+                    }
+                    if (captured >= 0) {
+                        // a lone king against a king, or a king and one minor piece
+                        add(DRAWN_ENDING, 0);
+                    } else {
+                        add(IN_TABLE, childIndex(1, target));
+                    }
+                }
+            }
+        }
+
+        private void addMoves(int piece, long targets) {
+            while (targets != 0) {
+                int target = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                add(IN_TABLE, childIndex(piece, target));
+            }
+        }
+
+        private void addPawnMoves(int piece, long occupied) {
+            int push = squares[piece] + 8;
+            if ((occupied & 1L << push) != 0) {
+                return;
+            }
+            if (push >= 56) {
+                promoted[0] = squares[0];
+                promoted[1] = squares[1];
+                promoted[2] = push;
+                add(QUEEN_PROMOTION, Material.KQK.encode(promoted, 1));
+                add(ROOK_PROMOTION, Material.KRK.encode(promoted, 1));
+                // bishop and knight promotions
+                add(DRAWN_ENDING, 0);
+                add(DRAWN_ENDING, 0);
+                return;
+            }
+            add(IN_TABLE, childIndex(piece, push));
+            if (squares[piece] < 16 && (occupied & 1L << push + 8) == 0) {
+                add(IN_TABLE, childIndex(piece, push + 8));
+            }
+        }
+
+        private void add(int kind, int index) {
+            childKinds[childCount] = kind;
+            children[childCount++] = index;
+        }
+
+        private int childIndex(int piece, int target) {
+            System.arraycopy(squares, 0, moved, 0, pieces);
+            moved[piece] = target;
+            return material.encode(moved, 1 - toMove);
+        }
+
+        /**
+         * Lists the entries that reach this position in one move, by
+         * unmoving each piece of the side that just moved, including both
+         * entries of a position stored twice (see {@link Material#twin}).
+         * Some may be invalid placements, which are already marked as such.
+         *
+         * @return the number of predecessors written to {@code out}
+         */
+        int predecessors(int[] out) {
+            long occupied = occupied();
+            if (toMove == 0) {
+                // black moved last, and black has only its king
+                return unmoves(1, AttackTables.king(squares[1]) & ~occupied, out, 0);
+            }
+            int count = unmoves(0, AttackTables.king(squares[0]) & ~occupied, out, 0);
+            for (int i = 2; i < pieces; i++) {
+                if (isPawn(i)) {
+                    int from = squares[i] - 8;
+                    if (from >= 8 && (occupied & 1L << from) == 0) {
+                        count = unmoves(i, 1L << from, out, count);
+                        if (squares[i] >= 24 && squares[i] < 32 && (occupied & 1L << from - 8) == 0) {
+                            count = unmoves(i, 1L << from - 8, out, count);
+                        }
+                    }
+                } else {
+                    count = unmoves(i, attacks(i, squares[i], occupied) & ~occupied, out, count);
+                }
+            }
+            return count;
+        }
+
+        private int unmoves(int piece, long origins, int[] out, int count) {
+            while (origins != 0) {
+                int origin = Long.numberOfTrailingZeros(origins);
+                origins &= origins - 1;
+                System.arraycopy(squares, 0, moved, 0, pieces);
+                moved[piece] = origin;
+                int index = material.encode(moved, 1 - toMove);
+                out[count++] = index;
+                int twin = material.twin(index);
+                if (twin >= 0) {
+                    out[count++] = twin;
+                }
+            }
+            return count;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TablebaseGenerator <directory> [material...]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        TablebaseGenerator generator = new TablebaseGenerator();
+        Material[] materials = Material.values();
+        if (args.length > 1) {
+            materials = new Material[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                materials[i - 1] = Material.valueOf(args[i]);
+            }
+        }
+        for (Material material : materials) {
+            long start = System.nanoTime();
+            Path file = generator.write(material, directory);
+            System.out.printf("%s: %d entries in %d ms -> %s%n", material, material.size(),
+                    (System.nanoTime() - start) / 1_000_000, file);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package chess.tablebase;
+
+/**
+ * A tablebase answer for the side to move.
+ *
+ * @param outcome     the result with perfect play
+ * @param pliesToMate half-moves until mate with perfect play, the winner
+ *                    mating as fast as possible and the loser delaying it;
+ *                    0 for a draw
+ */
+public record TablebaseResult(Outcome outcome, int pliesToMate) {
+
+    public enum Outcome {
+        WIN, DRAW, LOSS
+    }
+
+    /**
+     * @return full moves until mate, counting the mating move; 0 for a draw
+     */
+    public int movesToMate() {
+        return (pliesToMate + 1) / 2;
+    }
+}
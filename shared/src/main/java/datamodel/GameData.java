@@ -3,4 +3,15 @@ package datamodel;
 import chess.ChessGame;
 
 public record GameData(int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game) {
+
+    /**
+     * @return a copy holding a private game rebuilt from the game's latest
+     * snapshot, safe to serialize while moves are being made on the original
+     */
+    public GameData withSnapshot() {
+        if (game == null) {
+            return this;
+        }
+        return new GameData(gameID, whiteUsername, blackUsername, gameName, game.snapshot().toGame());
+    }
 }
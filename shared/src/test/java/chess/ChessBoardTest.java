@@ -0,0 +1,236 @@
+package chess;
+
+import chess.moves.LegalMoveGenerator;
+import chess.moves.Move;
+import chess.moves.MoveList;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static passoff.chess.TestUtilities.loadBoard;
+
+class ChessBoardTest {
+
+    private static final String ROOKS_AND_KINGS = """
+            |r| | | |k| | |r|
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            |R| | | |K| | |R|
+            """;
+
+    private static int square(String name) {
+        return (name.charAt(1) - '1') * 8 + (name.charAt(0) - 'a');
+    }
+
+    private static int move(String from, String to) {
+        return Move.of(square(from), square(to));
+    }
+
+    @Test
+    void offBoardPositionsAreRejected() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessPiece queen = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
+        for (ChessPosition offBoard : new ChessPosition[]{new ChessPosition(1, 9), new ChessPosition(0, 1),
+                new ChessPosition(9, 8), new ChessPosition(2, 0), new ChessPosition(-1, 3)}) {
+            assertFalse(offBoard.isOnBoard());
+            assertThrows(IndexOutOfBoundsException.class, () -> board.getPiece(offBoard));
+            assertThrows(IndexOutOfBoundsException.class, () -> board.addPiece(offBoard, queen));
+        }
+        ChessBoard fresh = new ChessBoard();
+        fresh.resetBoard();
+        assertEquals(fresh, board, "a rejected addPiece leaves the board alone");
+        assertTrue(new ChessPosition(8, 8).isOnBoard());
+    }
+
+    @Test
+    void castlingRightsFollowPlacement() {
+        ChessBoard board = loadBoard(ROOKS_AND_KINGS);
+        assertEquals(15, board.castlingRights());
+
+        board.addPiece(new ChessPosition(1, 8), null);
+        assertEquals(15 & ~ChessBoard.WHITE_KINGSIDE, board.castlingRights());
+    }
+
+    @Test
+    void rightsLostByMovingStayLost() {
+        ChessBoard board = loadBoard(ROOKS_AND_KINGS);
+        board.makeMove(move("a1", "a2"));
+        board.makeMove(move("a2", "a1"));
+        assertEquals(15 & ~ChessBoard.WHITE_QUEENSIDE, board.castlingRights());
+
+        ChessBoard fresh = loadBoard(ROOKS_AND_KINGS);
+        assertNotEquals(fresh, board);
+        assertNotEquals(fresh.zobristKey(), board.zobristKey());
+    }
+
+    @Test
+    void castlingMovesTheRookAndUnmakeRestoresIt() {
+        ChessBoard board = loadBoard(ROOKS_AND_KINGS);
+        ChessBoard before = board.deepCopy();
+        long keyBefore = board.zobristKey();
+
+        long undo = board.makeMove(move("e8", "c8"));
+        assertEquals(ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK),
+                board.getPiece(new ChessPosition(8, 4)));
+        assertNull(board.getPiece(new ChessPosition(8, 1)));
+        assertEquals(ChessBoard.WHITE_KINGSIDE | ChessBoard.WHITE_QUEENSIDE, board.castlingRights());
+
+        board.unmakeMove(undo);
+        assertEquals(before, board);
+        assertEquals(keyBefore, board.zobristKey());
+    }
+
+    @Test
+    void enPassantSquareOnlyWhenCapturable() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        board.makeMove(move("e2", "e4"));
+        assertEquals(-1, board.enPassantSquare(), "no black pawn can capture on e3");
+
+        board.makeMove(move("d7", "d5"));
+        board.makeMove(move("e4", "e5"));
+        board.makeMove(move("f7", "f5"));
+        assertEquals(square("f6"), board.enPassantSquare());
+
+        long keyWithCapture = board.zobristKey();
+        long undo = board.makeMove(move("e5", "f6"));
+        assertNull(board.getPiece(new ChessPosition(5, 6)), "captured pawn is removed");
+        board.unmakeMove(undo);
+        assertEquals(keyWithCapture, board.zobristKey());
+        assertEquals(ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN),
+                board.getPiece(new ChessPosition(5, 6)));
+    }
+
+    @Test
+    void serializationKeepsState() {
+        ChessBoard board = loadBoard(ROOKS_AND_KINGS);
+        board.makeMove(move("h8", "h7"));
+        board.makeMove(move("h7", "h8"));
+
+        Gson gson = new Gson();
+        ChessBoard copy = gson.fromJson(gson.toJson(board), ChessBoard.class);
+        assertEquals(board, copy);
+        assertEquals(board.castlingRights(), copy.castlingRights());
+    }
+
+    @Test
+    void incrementalKeyMatchesKeyFromScratch() {
+        String[] positions = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+        };
+        // captures, promotions, castles, en passant, other moves that lose rights
+        int[] seen = new int[5];
+        for (String fen : positions) {
+            ChessGame game = ChessGame.fromFen(fen);
+            checkKeys(game.getBoard(), game.getTeamTurn(), 2, seen);
+        }
+        for (int count : seen) {
+            assertTrue(count > 0, "every kind of move is exercised");
+        }
+    }
+
+    private static void checkKeys(ChessBoard board, ChessGame.TeamColor color, int depth, int[] seen) {
+        MoveList moves = new MoveList();
+        LegalMoveGenerator.generate(board, color, -1L, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int rightsBefore = board.castlingRights();
+            long undo = board.makeMove(move);
+            assertEquals(keyFromScratch(board), board.zobristKey(), () -> Move.toString(move) + " in\n" + board);
+
+            seen[0] += Move.isCapture(move) ? 1 : 0;
+            seen[1] += Move.promotion(move) != null ? 1 : 0;
+            seen[2] += Move.isCastle(move) ? 1 : 0;
+            seen[3] += Move.isEnPassant(move) ? 1 : 0;
+            seen[4] += !Move.isCastle(move) && board.castlingRights() != rightsBefore ? 1 : 0;
+
+            if (depth > 1) {
+                checkKeys(board, color.opponent(), depth - 1, seen);
+            }
+            board.unmakeMove(undo);
+            assertEquals(keyFromScratch(board), board.zobristKey());
+        }
+    }
+
+    private static long keyFromScratch(ChessBoard board) {
+        long key = Zobrist.castling(board.castlingRights());
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.pieceAt(square);
+            if (piece != null) {
+                key ^= Zobrist.piece(piece, square);
+            }
+        }
+        if (board.enPassantSquare() >= 0) {
+            key ^= Zobrist.enPassant(board.enPassantSquare() & 7);
+        }
+        return key;
+    }
+
+    @Test
+    void unmakeRestoresEverythingMakeChanged() {
+        String[] positions = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 b kq - 0 1",
+                "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+        };
+        // en passant, promotions that capture, castles
+        int[] seen = new int[3];
+        for (String fen : positions) {
+            ChessGame game = ChessGame.fromFen(fen);
+            checkUnmake(game.getBoard(), game.getTeamTurn(), 2, seen);
+        }
+        for (int count : seen) {
+            assertTrue(count > 0, "every tricky kind of move is exercised");
+        }
+    }
+
+    private static void checkUnmake(ChessBoard board, ChessGame.TeamColor color, int depth, int[] seen) {
+        MoveList moves = new MoveList();
+        LegalMoveGenerator.generate(board, color, -1L, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            seen[0] += Move.isEnPassant(move) ? 1 : 0;
+            seen[1] += Move.isCapture(move) && Move.promotion(move) != null ? 1 : 0;
+            seen[2] += Move.isCastle(move) ? 1 : 0;
+
+            String before = fingerprint(board);
+            long undo = board.makeMove(move);
+            if (depth > 1) {
+                checkUnmake(board, color.opponent(), depth - 1, seen);
+            }
+            board.unmakeMove(undo);
+            assertEquals(before, fingerprint(board), () -> "unmaking " + Move.toString(move));
+        }
+    }
+
+    /**
+     * Everything make and unmake touch: the mailbox, every bitboard, the raw
+     * state word, the key and the incremental evaluation terms.
+     */
+    private static String fingerprint(ChessBoard board) {
+        StringBuilder out = new StringBuilder();
+        for (int square = 0; square < 64; square++) {
+            out.append(board.pieceAt(square)).append(',');
+        }
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                out.append(board.pieces(color, type)).append(',');
+            }
+            out.append(board.occupancy(color)).append(',');
+        }
+        return out.append(board.occupied())
+                .append(" state=").append(board.state())
+                .append(" key=").append(board.zobristKey())
+                .append(" mg=").append(board.middlegameScore())
+                .append(" eg=").append(board.endgameScore())
+                .append(" phase=").append(board.phase())
+                .toString();
+    }
+}
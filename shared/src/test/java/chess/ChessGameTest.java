@@ -0,0 +1,201 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessGameTest {
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+    }
+
+    @Test
+    void allLegalMovesIsCachedUntilNextMove() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        List<ChessMove> whiteMoves = game.allLegalMoves(ChessGame.TeamColor.WHITE);
+        assertEquals(20, whiteMoves.size());
+        assertSame(whiteMoves, game.allLegalMoves(ChessGame.TeamColor.WHITE));
+        assertThrows(UnsupportedOperationException.class, () -> whiteMoves.add(move(2, 1, 3, 1)));
+
+        game.makeMove(move(2, 5, 4, 5));
+        assertNotSame(whiteMoves, game.allLegalMoves(ChessGame.TeamColor.WHITE));
+        assertEquals(30, game.allLegalMoves(ChessGame.TeamColor.WHITE).size());
+        assertEquals(20, game.allLegalMoves(ChessGame.TeamColor.BLACK).size());
+    }
+
+    @Test
+    void cacheSeesBoardEdits() {
+        ChessGame game = new ChessGame();
+        assertEquals(20, game.legalMoveCount(ChessGame.TeamColor.WHITE));
+        game.getBoard().addPiece(new ChessPosition(2, 4), null);
+        assertEquals(31, game.legalMoveCount(ChessGame.TeamColor.WHITE));
+        assertEquals(31, game.allLegalMoves(ChessGame.TeamColor.WHITE).size());
+    }
+
+    @Test
+    void legalMoveCountStopsAtLimit() {
+        ChessGame game = new ChessGame();
+        assertEquals(20, game.legalMoveCount(ChessGame.TeamColor.BLACK));
+        assertEquals(5, game.legalMoveCount(ChessGame.TeamColor.BLACK, 5));
+        game.allLegalMoves(ChessGame.TeamColor.BLACK);
+        assertEquals(5, game.legalMoveCount(ChessGame.TeamColor.BLACK, 5));
+    }
+
+    @Test
+    void validMovesAgreeWithAllLegalMoves() {
+        ChessGame game = new ChessGame();
+        Set<ChessMove> perSquare = new HashSet<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == ChessGame.TeamColor.WHITE) {
+                    perSquare.addAll(game.validMoves(position));
+                }
+            }
+        }
+        assertEquals(new HashSet<>(game.allLegalMoves(ChessGame.TeamColor.WHITE)), perSquare);
+    }
+
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(8, 7, 6, 6));
+        game.makeMove(move(3, 6, 1, 7));
+        game.makeMove(move(6, 6, 8, 7));
+    }
+
+    @Test
+    void threefoldRepetitionIsADraw() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        assertEquals(2, game.repetitionCount());
+        assertEquals(ChessGame.GameStatus.ONGOING, game.getGameStatus());
+        assertEquals(4, game.getHalfmoveClock());
+
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(8, 7, 6, 6));
+        game.makeMove(move(3, 6, 1, 7));
+        assertFalse(game.isGameOver());
+        game.makeMove(move(6, 6, 8, 7));
+        assertEquals(3, game.repetitionCount());
+        assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.getGameStatus());
+        assertTrue(game.isGameOver());
+        assertTrue(game.getGameStatus().isDraw());
+    }
+
+    @Test
+    void pawnMovesAndCapturesResetTheHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        game.makeMove(move(2, 5, 4, 5));
+        game.makeMove(move(7, 5, 5, 5));
+        assertEquals(0, game.getHalfmoveClock());
+        assertEquals(1, game.repetitionCount());
+
+        shuffleKnights(game);
+        shuffleKnights(game);
+        assertEquals(3, game.repetitionCount());
+        assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.getGameStatus());
+
+        ChessGame capture = ChessGame.fromFen("4k3/8/8/3p4/8/8/8/3QK3 w - - 12 40");
+        assertEquals(12, capture.getHalfmoveClock());
+        capture.makeMove(move(1, 4, 5, 4));
+        assertEquals(0, capture.getHalfmoveClock());
+    }
+
+    @Test
+    void fiftyMoveRuleIsADraw() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/R3K3 w - - 99 80");
+        assertEquals(ChessGame.GameStatus.ONGOING, game.getGameStatus());
+        game.makeMove(move(1, 1, 2, 1));
+        assertEquals(100, game.getHalfmoveClock());
+        assertEquals(ChessGame.GameStatus.FIFTY_MOVE_RULE, game.getGameStatus());
+        assertEquals("4k3/8/8/8/8/8/R3P3/4K3 b - - 100 80", game.toFen());
+
+        ChessGame mate = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 99 80");
+        mate.makeMove(move(1, 1, 8, 1));
+        assertEquals(ChessGame.GameStatus.CHECKMATE, mate.getGameStatus());
+    }
+
+    @Test
+    void insufficientMaterialIsADraw() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/3q4/4K3 w - - 0 1");
+        game.makeMove(move(1, 5, 2, 4));
+        assertEquals(ChessGame.GameStatus.INSUFFICIENT_MATERIAL, game.getGameStatus());
+
+        assertTrue(ChessGame.fromFen("4k3/8/8/8/8/8/8/2B1K3 w - - 0 1").getBoard().hasInsufficientMaterial());
+        assertTrue(ChessGame.fromFen("4kb2/8/8/8/8/8/8/2B1K3 w - - 0 1").getBoard().hasInsufficientMaterial());
+        assertFalse(ChessGame.fromFen("2b1k3/8/8/8/8/8/8/2B1K3 w - - 0 1").getBoard().hasInsufficientMaterial());
+        assertFalse(ChessGame.fromFen("4k3/8/8/8/8/8/8/1NN1K3 w - - 0 1").getBoard().hasInsufficientMaterial());
+        assertFalse(ChessGame.fromFen("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1").getBoard().hasInsufficientMaterial());
+        assertFalse(new ChessGame().getBoard().hasInsufficientMaterial());
+    }
+
+    @Test
+    void historySurvivesCopiesAndSerialization() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(8, 7, 6, 6));
+        game.makeMove(move(3, 6, 1, 7));
+
+        ChessGame copy = game.deepCopy();
+        Gson gson = new Gson();
+        ChessGame stored = gson.fromJson(gson.toJson(game), ChessGame.class);
+        for (ChessGame g : List.of(game, copy, stored)) {
+            assertEquals(7, g.getHalfmoveClock());
+            g.makeMove(move(6, 6, 8, 7));
+            assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, g.getGameStatus());
+        }
+    }
+
+    @Test
+    void statusFollowsMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        assertEquals(ChessGame.GameStatus.ONGOING, game.getGameStatus());
+        game.makeMove(move(2, 6, 3, 6));
+        game.makeMove(move(7, 5, 5, 5));
+        assertEquals(ChessGame.GameStatus.ONGOING, game.getGameStatus());
+        game.makeMove(move(2, 7, 4, 7));
+        game.makeMove(move(8, 4, 4, 8));
+        assertEquals(ChessGame.GameStatus.CHECKMATE, game.getGameStatus());
+    }
+
+    @Test
+    void statusFollowsSetBoard() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        shuffleKnights(game);
+        assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.getGameStatus());
+        game.setBoard(game.getBoard().deepCopy());
+        assertEquals(ChessGame.GameStatus.ONGOING, game.getGameStatus(),
+                "an equal board starts a new history, so nothing has repeated");
+
+        ChessGame fifty = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/R3K3 w - - 100 80");
+        assertEquals(ChessGame.GameStatus.FIFTY_MOVE_RULE, fifty.getGameStatus());
+        fifty.setBoard(fifty.getBoard().deepCopy());
+        assertEquals(ChessGame.GameStatus.ONGOING, fifty.getGameStatus());
+    }
+
+    @Test
+    void statusFollowsSetTeamTurnAndSetGameOver() {
+        ChessGame game = ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 w - - 0 1");
+        assertEquals(ChessGame.GameStatus.ONGOING, game.getGameStatus());
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertEquals(ChessGame.GameStatus.STALEMATE, game.getGameStatus());
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        assertEquals(ChessGame.GameStatus.ONGOING, game.getGameStatus());
+
+        game.setGameOver(true);
+        assertEquals(ChessGame.GameStatus.RESIGNED, game.getGameStatus());
+        assertTrue(game.isGameOver());
+        game.setGameOver(false);
+        assertEquals(ChessGame.GameStatus.ONGOING, game.getGameStatus());
+    }
+}
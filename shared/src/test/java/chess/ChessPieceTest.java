@@ -0,0 +1,70 @@
+package chess;
+
+import chess.moves.Move;
+import chess.moves.MoveList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static passoff.chess.TestUtilities.loadBoard;
+
+class ChessPieceTest {
+
+    private static final String BOARD = """
+            |r| | | |k| | |r|
+            |p| |p|p|q|p|b| |
+            |b|n| | |p|n|p| |
+            | | | |P|N| | | |
+            | |p| | |P| | | |
+            | | |N| | |Q| |p|
+            |P|P|P|B|B|P|p|P|
+            |R| | | |K| | |R|
+            """;
+
+    @Test
+    void sinkMatchesCollection() {
+        ChessBoard board = loadBoard(BOARD);
+        for (int square = 0; square < 64; square++) {
+            ChessPosition position = ChessPosition.fromSquare(square);
+            ChessPiece piece = board.getPiece(position);
+            if (piece == null) {
+                continue;
+            }
+            MoveList sunk = new MoveList();
+            assertTrue(piece.pieceMoves(board, position, sunk));
+
+            List<ChessMove> converted = new ArrayList<>();
+            sunk.addTo(converted);
+            assertEquals(new HashSet<>(piece.pieceMoves(board, position)), new HashSet<>(converted),
+                    "Moves differ for " + piece + " at " + position);
+        }
+    }
+
+    @Test
+    void sinkStopsEarly() {
+        ChessBoard board = loadBoard(BOARD);
+        ChessPosition queen = new ChessPosition(3, 6);
+        int[] seen = new int[1];
+        boolean finished = board.getPiece(queen).pieceMoves(board, queen, move -> ++seen[0] < 2);
+        assertFalse(finished);
+        assertEquals(2, seen[0]);
+    }
+
+    @Test
+    void sinkFlagsCaptures() {
+        ChessBoard board = loadBoard(BOARD);
+        ChessPosition pawn = new ChessPosition(2, 7);
+        MoveList moves = new MoveList();
+        board.getPiece(pawn).pieceMoves(board, pawn, moves);
+        // g2 takes h1 with four promotions, plus four promotions on g1
+        assertEquals(8, moves.size());
+        int captures = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            captures += Move.isCapture(moves.get(i)) ? 1 : 0;
+        }
+        assertEquals(4, captures);
+    }
+}
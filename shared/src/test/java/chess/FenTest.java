@@ -0,0 +1,119 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static passoff.chess.TestUtilities.loadBoard;
+
+class FenTest {
+
+    @Test
+    void startingPosition() {
+        ChessGame game = ChessGame.fromFen(Fen.START);
+        assertEquals(new ChessGame(), game);
+        assertEquals(new ChessGame().positionKey(), game.positionKey());
+        assertEquals(Fen.START, new ChessGame().toFen());
+    }
+
+    @Test
+    void readsDiagramPositions() {
+        ChessGame fromDiagram = new ChessGame();
+        fromDiagram.setBoard(loadBoard("""
+                | | | | | | | |k|
+                | | |p| | | | | |
+                | | | |p| | | | |
+                |K|P| | | | | |r|
+                | |R| | | |p| | |
+                | | | | | | | | |
+                | | | | |P| |P| |
+                | | | | | | | | |
+                """));
+        fromDiagram.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        ChessGame fromFen = ChessGame.fromFen("7k/2p5/3p4/KP5r/1R3p2/8/4P1P1/8 b - - 3 40");
+        assertEquals(fromDiagram, fromFen);
+        assertEquals("7k/2p5/3p4/KP5r/1R3p2/8/4P1P1/8 b - - 3 40", fromFen.toFen());
+    }
+
+    @Test
+    void keepsCastlingRightsAndEnPassant() throws InvalidMoveException {
+        String fen = "r3k2r/8/8/8/4p3/8/3P4/R3K2R w Kq - 0 1";
+        ChessGame game = ChessGame.fromFen(fen);
+        assertEquals(ChessBoard.WHITE_KINGSIDE | ChessBoard.BLACK_QUEENSIDE, game.getBoard().castlingRights());
+        assertEquals(fen, game.toFen());
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null));
+        String afterDoubleStep = "r3k2r/8/8/8/3Pp3/8/8/R3K2R b Kq d3 0 1";
+        assertEquals(afterDoubleStep, game.toFen());
+        assertEquals(game, ChessGame.fromFen(afterDoubleStep));
+        assertEquals(game.positionKey(), ChessGame.fromFen(afterDoubleStep).positionKey());
+    }
+
+    @Test
+    void fullmoveNumberAdvancesAfterBlackMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        assertEquals(1, game.getFullmoveNumber());
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        assertEquals(2, game.getFullmoveNumber());
+        assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2", game.toFen());
+
+        String late = "4k3/8/8/8/8/8/4P3/R3K3 b - - 7 63";
+        ChessGame restored = new Gson().fromJson(new Gson().toJson(ChessGame.fromFen(late)), ChessGame.class);
+        assertEquals(late, restored.toFen());
+        assertEquals(late, restored.snapshot().toFen());
+        assertEquals(late, restored.deepCopy().toFen());
+
+        assertEquals(1, ChessGame.fromFen("4k3/8/8/8/8/8/4P3/R3K3 w - - 0 0").getFullmoveNumber());
+        assertEquals(1, ChessGame.fromFen("4k3/8/8/8/8/8/4P3/R3K3 w - -").getFullmoveNumber());
+    }
+
+    @Test
+    void omitsUncapturableEnPassantSquare() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - e3 0 1");
+        assertEquals("4k3/8/8/8/4P3/8/8/4K3 b - - 0 1", game.toFen());
+        assertEquals(ChessGame.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - -"), game);
+    }
+
+    @Test
+    void roundTripsRandomGames() throws InvalidMoveException {
+        Random random = new Random(23);
+        Gson gson = new Gson();
+        for (int g = 0; g < 20; g++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 60 && !game.isGameOver(); ply++) {
+                var moves = game.allLegalMoves(game.getTeamTurn());
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+
+                ChessGame copy = ChessGame.fromFen(game.toFen());
+                assertEquals(game, copy);
+                assertEquals(game.toFen(), copy.toFen());
+                assertEquals(game.positionKey(), copy.positionKey());
+                assertEquals(game, gson.fromJson(gson.toJson(copy), ChessGame.class));
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidFen() {
+        String[] invalid = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+        };
+        for (String fen : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+}
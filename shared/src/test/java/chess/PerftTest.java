@@ -0,0 +1,115 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Perft counts for well-known reference positions. Any change to move
+ * generation or make/unmake that disagrees with these is a bug.
+ */
+class PerftTest {
+
+    // "Kiwipete", position 2 from the chess programming wiki perft results
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    // Positions 3 to 6 from the chess programming wiki perft results
+    private static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String PROMOTIONS = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private static final String DISCOVERED = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+    private static final String MIDDLEGAME = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+
+    private static ChessGame game(String fen) {
+        return ChessGame.fromFen(fen);
+    }
+
+    @Test
+    void startingPosition() {
+        ChessGame game = new ChessGame();
+        assertEquals(1, game.perft(0));
+        assertEquals(20, game.perft(1));
+        assertEquals(400, game.perft(2));
+        assertEquals(8902, game.perft(3));
+        assertEquals(197281, game.perft(4));
+    }
+
+    @Test
+    void kiwipete() {
+        ChessGame game = game(KIWIPETE);
+        assertEquals(48, game.perft(1));
+        assertEquals(2039, game.perft(2));
+        assertEquals(97862, game.perft(3));
+        assertEquals(4085603, game.perft(4));
+    }
+
+    @Test
+    void endgamePosition() {
+        ChessGame game = game(ENDGAME);
+        assertEquals(14, game.perft(1));
+        assertEquals(191, game.perft(2));
+        assertEquals(2812, game.perft(3));
+        assertEquals(43238, game.perft(4));
+        assertEquals(674624, game.perft(5));
+    }
+
+    @Test
+    void promotionPosition() {
+        ChessGame game = game(PROMOTIONS);
+        assertEquals(6, game.perft(1));
+        assertEquals(264, game.perft(2));
+        assertEquals(9467, game.perft(3));
+        assertEquals(422333, game.perft(4));
+    }
+
+    @Test
+    void discoveredCheckPosition() {
+        ChessGame game = game(DISCOVERED);
+        assertEquals(44, game.perft(1));
+        assertEquals(1486, game.perft(2));
+        assertEquals(62379, game.perft(3));
+        assertEquals(2103487, game.perft(4));
+    }
+
+    @Test
+    void middlegamePosition() {
+        ChessGame game = game(MIDDLEGAME);
+        assertEquals(46, game.perft(1));
+        assertEquals(2079, game.perft(2));
+        assertEquals(89890, game.perft(3));
+        assertEquals(3894594, game.perft(4));
+    }
+
+    @Test
+    void perftLeavesGameUnchanged() {
+        ChessGame game = game(KIWIPETE);
+        ChessGame before = game.deepCopy();
+        game.perft(3);
+        assertEquals(before, game);
+        assertEquals(before.getBoard().toString(), game.getBoard().toString());
+    }
+
+    @Test
+    void divideSumsToPerft() {
+        ChessGame game = new ChessGame();
+        Map<ChessMove, Long> divide = game.divide(3);
+        assertEquals(20, divide.size());
+        assertEquals(8902, divide.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(600, divide.get(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)));
+    }
+
+    @Test
+    void parallelMatchesSerial() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(197281, new ChessGame().perftParallel(4, pool));
+            assertEquals(89890, game(MIDDLEGAME).perftParallel(3, pool));
+            assertEquals(97862, game(KIWIPETE).perftParallel(3, pool));
+            assertEquals(20, new ChessGame().perftParallel(1, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package chess;
+
+import chess.moves.MoveList;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PieceSquareTablesTest {
+
+    /**
+     * Recomputes every score by walking the board.
+     */
+    private static int[] fromScratch(ChessBoard board) {
+        int middlegame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.pieceAt(square);
+            if (piece != null) {
+                int index = ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType());
+                middlegame += PieceSquareTables.middlegame(index, square);
+                endgame += PieceSquareTables.endgame(index, square);
+                phase += PieceSquareTables.phaseWeight(piece.getPieceType());
+            }
+        }
+        return new int[]{middlegame, endgame, phase};
+    }
+
+    private static void assertConsistent(ChessBoard board) {
+        int[] expected = fromScratch(board);
+        assertEquals(expected[0], board.middlegameScore());
+        assertEquals(expected[1], board.endgameScore());
+        assertEquals(expected[2], board.phase());
+    }
+
+    @Test
+    void startingPositionIsBalanced() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        assertEquals(0, board.middlegameScore());
+        assertEquals(0, board.endgameScore());
+        assertEquals(PieceSquareTables.MAX_PHASE, board.phase());
+        assertEquals(0, board.pieceSquareScore());
+    }
+
+    @Test
+    void mirroredPiecesCancel() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        board.addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        assertEquals(0, board.middlegameScore());
+
+        board.addPiece(new ChessPosition(7, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        assertTrue(board.endgameScore() > board.middlegameScore(), "passed pawns matter more late");
+    }
+
+    @Test
+    void incrementalMatchesFromScratchOverRandomGames() {
+        Random random = new Random(240);
+        Gson gson = new Gson();
+        for (int gameNumber = 0; gameNumber < 40; gameNumber++) {
+            ChessGame game = new ChessGame();
+            Deque<Long> undos = new ArrayDeque<>();
+            MoveList moves = new MoveList();
+            for (int ply = 0; ply < 120; ply++) {
+                moves.clear();
+                game.legalMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                undos.push(game.makeMoveUnchecked(moves.get(random.nextInt(moves.size()))));
+                assertConsistent(game.getBoard());
+            }
+
+            ChessBoard copy = gson.fromJson(gson.toJson(game.getBoard()), ChessBoard.class);
+            assertEquals(game.getBoard().pieceSquareScore(), copy.pieceSquareScore());
+            assertEquals(game.getBoard().pieceSquareScore(), game.getBoard().deepCopy().pieceSquareScore());
+
+            while (!undos.isEmpty()) {
+                game.unmakeMove(undos.pop());
+                assertConsistent(game.getBoard());
+            }
+            assertEquals(0, game.getBoard().pieceSquareScore());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package chess;
+
+import chess.moves.Move;
+import chess.moves.MoveList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionMoveCacheTest {
+
+    private static MoveList moves(int... packed) {
+        MoveList list = new MoveList();
+        for (int move : packed) {
+            list.add(move);
+        }
+        return list;
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        PositionMoveCache cache = new PositionMoveCache(4);
+        MoveList out = new MoveList();
+        assertFalse(cache.get(42L, out));
+
+        cache.put(42L, moves(Move.of(12, 28), Move.of(6, 21)));
+        assertTrue(cache.get(42L, out));
+        assertEquals(2, out.size());
+        assertEquals(Move.of(12, 28), out.get(0));
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(0.5, cache.hitRate());
+    }
+
+    @Test
+    void storesACopy() {
+        PositionMoveCache cache = new PositionMoveCache(4);
+        MoveList original = moves(Move.of(12, 28));
+        cache.put(1L, original);
+        original.add(Move.of(6, 21));
+
+        MoveList out = new MoveList();
+        cache.get(1L, out);
+        assertEquals(1, out.size());
+    }
+
+    @Test
+    void clockSparesRecentlyReadEntries() {
+        PositionMoveCache cache = new PositionMoveCache(3);
+        for (long key = 1; key <= 3; key++) {
+            cache.put(key, moves(Move.of(0, 8)));
+        }
+        MoveList out = new MoveList();
+        cache.get(1L, out);
+
+        cache.put(4L, moves(Move.of(0, 8)));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.evictions());
+        assertTrue(cache.get(1L, out), "entry read since the last sweep survives");
+        assertFalse(cache.get(2L, out), "oldest unread entry is evicted");
+    }
+
+    @Test
+    void staysBoundedUnderConcurrentUse() throws Exception {
+        PositionMoveCache cache = new PositionMoveCache(64);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(pool.submit(() -> {
+                    MoveList out = new MoveList();
+                    for (long key = 0; key < 10_000; key++) {
+                        out.clear();
+                        if (!cache.get(key % 200, out)) {
+                            cache.put(key % 200, moves(Move.of(1, 18)));
+                        } else {
+                            assertEquals(1, out.size());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(cache.size() <= 64);
+        assertEquals(40_000, cache.hits() + cache.misses());
+    }
+
+    @Test
+    void gamesShareMovesForTheSamePosition() throws InvalidMoveException {
+        ChessMove e4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        ChessGame first = new ChessGame();
+        first.makeMove(e4);
+        first.validMoves(new ChessPosition(7, 5));
+
+        long hitsBefore = PositionMoveCache.shared().hits();
+        ChessGame second = new ChessGame();
+        second.makeMove(e4);
+        assertEquals(first.validMoves(new ChessPosition(7, 5)), second.validMoves(new ChessPosition(7, 5)));
+        assertTrue(PositionMoveCache.shared().hits() > hitsBefore);
+    }
+
+    @Test
+    void enPassantRankIsPartOfTheKey() {
+        ChessPosition d4 = new ChessPosition(4, 4);
+        ChessMove push = new ChessMove(d4, new ChessPosition(3, 4), null);
+        ChessMove capture = new ChessMove(d4, new ChessPosition(3, 5), null);
+
+        ChessGame blackToMove = ChessGame.fromFen("4k3/8/8/3Pp3/3pP3/8/8/4K3 b - e3 0 1");
+        assertEquals(Set.of(push, capture), new HashSet<>(blackToMove.validMoves(d4)));
+        assertEquals(7, blackToMove.legalMoveCount(ChessGame.TeamColor.BLACK));
+
+        ChessGame whiteToMove = ChessGame.fromFen("4k3/8/8/3Pp3/3pP3/8/8/4K3 w - e6 0 1");
+        assertEquals(Set.of(push), new HashSet<>(whiteToMove.validMoves(d4)),
+                "black's moves with white to move must not come from the black-to-move position");
+        assertEquals(6, whiteToMove.legalMoveCount(ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,158 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionSnapshotTest {
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+    }
+
+    @Test
+    void earlierSnapshotsDoNotChange() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        PositionSnapshot start = game.snapshot();
+        game.makeMove(move(2, 5, 4, 5));
+        PositionSnapshot afterE4 = game.snapshot();
+
+        assertEquals(Fen.START, start.toFen());
+        assertEquals(ChessGame.TeamColor.WHITE, start.getTeamTurn());
+        assertNotNull(start.getPiece(new ChessPosition(2, 5)));
+        assertNull(start.getPiece(new ChessPosition(4, 5)));
+
+        assertEquals(ChessGame.TeamColor.BLACK, afterE4.getTeamTurn());
+        assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                afterE4.getPiece(new ChessPosition(4, 5)));
+        assertEquals(game.positionKey(), afterE4.positionKey());
+        assertTrue(afterE4.version() > start.version());
+        assertSame(afterE4, game.snapshot(), "nothing changed, so nothing is republished");
+    }
+
+    @Test
+    void trialMovesAreNotPublished() {
+        ChessGame game = new ChessGame();
+        PositionSnapshot before = game.snapshot();
+        long undo = game.makeMoveUnchecked(move(2, 5, 4, 5));
+        assertSame(before, game.snapshot());
+        game.unmakeMove(undo);
+        assertSame(before, game.snapshot());
+    }
+
+    @Test
+    void setterChangesArePublished() {
+        ChessGame game = new ChessGame();
+        game.setGameOver(true);
+        assertEquals(ChessGame.GameStatus.RESIGNED, game.snapshot().getGameStatus());
+
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        game.setBoard(board);
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertEquals("7k/8/8/8/8/8/8/K7 b - - 0 1", game.snapshot().toFen());
+        assertEquals(ChessGame.GameStatus.INSUFFICIENT_MATERIAL, game.snapshot().getGameStatus());
+    }
+
+    @Test
+    void toGameKeepsClockAndRepetitions() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 2; i++) {
+            game.makeMove(move(1, 7, 3, 6));
+            game.makeMove(move(8, 7, 6, 6));
+            game.makeMove(move(3, 6, 1, 7));
+            game.makeMove(move(6, 6, 8, 7));
+        }
+        PositionSnapshot snapshot = game.snapshot();
+        ChessGame copy = snapshot.toGame();
+
+        assertEquals(game, copy);
+        assertEquals(game.toFen(), snapshot.toFen());
+        assertEquals(8, copy.getHalfmoveClock());
+        assertEquals(3, copy.repetitionCount());
+        assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, snapshot.getGameStatus());
+
+        copy.setGameOver(false);
+        assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.snapshot().getGameStatus(),
+                "changing the copy does not touch the original");
+    }
+
+    @Test
+    void deserializedGamePublishesItsOwnPosition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 4, 4, 4));
+        Gson gson = new Gson();
+        ChessGame restored = gson.fromJson(gson.toJson(game), ChessGame.class);
+
+        assertEquals(game.toFen(), restored.snapshot().toFen());
+        assertEquals(1, restored.snapshot().version(), "published once, as the game is read");
+        assertSame(restored.snapshot(), restored.snapshot(), "reading a snapshot never publishes one");
+        assertEquals(gson.toJson(game), gson.toJson(restored.snapshot().toGame()));
+    }
+
+    @Test
+    void gamesStoredBeforeTheClockExistedStillRead() {
+        String json = "{\"teamTurn\":\"BLACK\",\"board\":{\"squares\":["
+                + "[null,null,null,null,{\"pieceColor\":\"WHITE\",\"type\":\"KING\"},null,null,null],"
+                + "[],[],[],[],[],[],"
+                + "[null,null,null,null,{\"pieceColor\":\"BLACK\",\"type\":\"KING\"},null,null,null]]},"
+                + "\"gameOver\":false}";
+        ChessGame game = new Gson().fromJson(json, ChessGame.class);
+        assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", game.snapshot().toFen());
+        assertEquals(0, game.getHalfmoveClock());
+    }
+
+    @Test
+    void readersNeverSeeHalfAMove() throws Exception {
+        ChessGame game = new ChessGame();
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int thread = 0; thread < 2; thread++) {
+                readers.add(pool.submit(() -> {
+                    long lastVersion = 0;
+                    while (!done.get()) {
+                        PositionSnapshot snapshot = game.snapshot();
+                        assertTrue(snapshot.version() >= lastVersion);
+                        lastVersion = snapshot.version();
+                        assertEquals(1, Long.bitCount(snapshot.pieces(ChessGame.TeamColor.WHITE,
+                                ChessPiece.PieceType.KING)));
+                        assertEquals(1, Long.bitCount(snapshot.pieces(ChessGame.TeamColor.BLACK,
+                                ChessPiece.PieceType.KING)));
+                        assertEquals(snapshot.positionKey(), snapshot.toGame().positionKey());
+                    }
+                }));
+            }
+
+            Random random = new Random(25);
+            for (int ply = 0; ply < 2_000; ply++) {
+                if (game.isGameOver()) {
+                    ChessBoard start = new ChessBoard();
+                    start.resetBoard();
+                    game.setBoard(start);
+                    game.setTeamTurn(ChessGame.TeamColor.WHITE);
+                }
+                List<ChessMove> moves = game.allLegalMoves(game.getTeamTurn());
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            done.set(true);
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+
+    private static final String PGN = """
+            [Event "One"]
+            [Result "1-0"]
+
+            1. e4 {best by test} e5 2. Nf3 (2. f4 exf4) Nc6 3. Bb5 $1 a6 1-0
+
+            [Event "Two"]
+            [Result "1/2-1/2"]
+
+            1. e4 c5 2. Nf3 d6 1/2-1/2
+
+            [Event "Three"]
+            [Result "0-1"]
+
+            1.d4 d5 2.c4 e6 ; a comment to the end of the line
+            3.Nc3 0-1
+
+            [Event "Four"]
+            [Result "*"]
+
+            1. e4 e5 2. Qh9 Nc6 *
+            """;
+
+    @TempDir
+    Path dir;
+
+    private OpeningBook build(int maxPly, int skipped) throws IOException {
+        Files.writeString(dir.resolve("games.pgn"), PGN);
+        Path book = dir.resolve("book.bin");
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPly).addDirectory(dir);
+        int entries = builder.write(book);
+        assertEquals(4, builder.games());
+        assertEquals(skipped, builder.skippedGames());
+        assertEquals(entries * 16L, Files.size(book));
+        return OpeningBook.open(book);
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+    }
+
+    @Test
+    void readsGamesSkippingCommentsAndVariations() {
+        List<PgnReader.Game> games = new ArrayList<>();
+        PgnReader.read(PGN, games::add);
+
+        assertEquals(4, games.size());
+        assertEquals(List.of("e4", "e5", "Nf3", "Nc6", "Bb5", "a6"), games.get(0).moves());
+        assertEquals("1-0", games.get(0).result());
+        assertEquals("Two", games.get(1).tags().get("Event"));
+        assertEquals(List.of("d4", "d5", "c4", "e6", "Nc3"), games.get(2).moves());
+        assertEquals("*", games.get(3).result());
+    }
+
+    @Test
+    void weighsMovesByResult() throws IOException {
+        OpeningBook book = build(OpeningBookBuilder.DEFAULT_MAX_PLY, 1);
+
+        // e4: 2 points from a win, 1 from a draw and 1 from the unfinished game; d4 lost
+        List<BookMove> moves = book.bookMoves(new ChessGame());
+        assertEquals(List.of(new BookMove(move(2, 5, 4, 5), 4)), moves);
+    }
+
+    @Test
+    void findsPositionsAfterMoves() throws IOException, InvalidMoveException {
+        OpeningBook book = build(OpeningBookBuilder.DEFAULT_MAX_PLY, 1);
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5));
+
+        // black answered e4 with e5 twice (lost, unfinished) and c5 once (drew)
+        List<BookMove> moves = book.bookMoves(game);
+        assertEquals(2, moves.size());
+        assertEquals(1, moves.get(0).weight());
+        assertEquals(1, moves.get(1).weight());
+
+        game.makeMove(move(7, 4, 5, 4));
+        assertTrue(book.bookMoves(game).isEmpty());
+    }
+
+    @Test
+    void stopsAtMaxPly() throws IOException, InvalidMoveException {
+        OpeningBook book = build(1, 0);
+        ChessGame game = new ChessGame();
+        assertFalse(book.bookMoves(game).isEmpty());
+        game.makeMove(move(2, 5, 4, 5));
+        assertTrue(book.bookMoves(game).isEmpty());
+    }
+
+    @Test
+    void rejectsFilesThatAreNotBooks() throws IOException {
+        Path file = dir.resolve("short.bin");
+        Files.write(file, new byte[15]);
+        assertThrows(IOException.class, () -> OpeningBook.open(file));
+    }
+
+    @Test
+    void enginePlaysBookMoves() throws IOException {
+        Engine engine = new Engine();
+        engine.setOpeningBook(build(OpeningBookBuilder.DEFAULT_MAX_PLY, 1));
+
+        SearchResult result = engine.search(new ChessGame(), SearchLimits.depth(4));
+        assertEquals(move(2, 5, 4, 5), result.bestMove());
+        assertEquals(0, result.nodes());
+    }
+}
@@ -0,0 +1,81 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.moves.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static passoff.chess.TestUtilities.loadBoard;
+
+class SanTest {
+
+    private static ChessMove parse(ChessGame game, String san) {
+        return Move.toChessMove(San.parse(game, san));
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol, ChessPiece.PieceType promotion) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), promotion);
+    }
+
+    @Test
+    void parsesPawnAndPieceMoves() {
+        ChessGame game = new ChessGame();
+        assertEquals(move(2, 5, 4, 5, null), parse(game, "e4"));
+        assertEquals(move(1, 7, 3, 6, null), parse(game, "Nf3"));
+        assertEquals(move(1, 7, 3, 6, null), parse(game, "Nf3+!?"));
+    }
+
+    @Test
+    void parsesCapturesCastlingAndPromotion() {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard("""
+                | | |n| |k| | | |
+                | | | |P| | | | |
+                | | | | | | | | |
+                | | | |p| | | | |
+                | | | | |P| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | |K| | |R|
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+
+        assertEquals(move(4, 5, 5, 4, null), parse(game, "exd5"));
+        assertEquals(move(1, 5, 1, 7, null), parse(game, "O-O"));
+        assertEquals(move(1, 5, 1, 3, null), parse(game, "O-O-O"));
+        assertEquals(move(7, 4, 8, 3, ChessPiece.PieceType.QUEEN), parse(game, "dxc8=Q+"));
+        assertEquals(move(7, 4, 8, 4, ChessPiece.PieceType.KNIGHT), parse(game, "d8N"));
+    }
+
+    @Test
+    void usesDisambiguation() {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                |R| | | | | | |R|
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "Rd1"));
+        assertEquals(move(1, 1, 1, 4, null), parse(game, "Rad1"));
+        assertEquals(move(1, 8, 1, 6, null), parse(game, "Rhf1"));
+    }
+
+    @Test
+    void rejectsIllegalAndMalformedMoves() {
+        ChessGame game = new ChessGame();
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "e5"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "O-O"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "Zz9"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, ""));
+    }
+}
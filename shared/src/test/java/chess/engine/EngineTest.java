@@ -0,0 +1,178 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static passoff.chess.TestUtilities.loadBoard;
+
+class EngineTest {
+
+    private final Engine engine = new Engine();
+
+    private static ChessGame game(String diagram, ChessGame.TeamColor turn) {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard(diagram));
+        game.setTeamTurn(turn);
+        return game;
+    }
+
+    @Test
+    void findsBackRankMate() {
+        ChessGame game = game("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P|P|
+                |R| | | | | |K| |
+                """, ChessGame.TeamColor.WHITE);
+
+        SearchResult result = engine.search(game, SearchLimits.depth(4));
+        assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), result.bestMove());
+        assertTrue(result.isMate());
+        assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    void capturesHangingQueen() {
+        ChessGame game = game("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | |q| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P|P|
+                | | | | |R| |K| |
+                """, ChessGame.TeamColor.WHITE);
+
+        SearchResult result = engine.search(game, SearchLimits.depth(3));
+        assertEquals(new ChessMove(new ChessPosition(1, 5), new ChessPosition(5, 5), null), result.bestMove());
+        assertTrue(result.score() > 300);
+        assertEquals(result.bestMove(), result.principalVariation().get(0));
+    }
+
+    @Test
+    void noMoveWhenStalemated() {
+        ChessGame game = game("""
+                |k| | | | | | | |
+                | | |Q| | | | | |
+                | |K| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.BLACK);
+
+        SearchResult result = engine.search(game, SearchLimits.depth(3));
+        assertNull(result.bestMove());
+        assertEquals(0, result.score());
+        assertTrue(result.principalVariation().isEmpty());
+    }
+
+    @Test
+    void repeatingAPositionScoresAsADraw() throws InvalidMoveException {
+        ChessGame game = game("""
+                | | | | | | | |k|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |Q| | | |K|
+                """, ChessGame.TeamColor.WHITE);
+        game.makeMove(new ChessMove(new ChessPosition(1, 4), new ChessPosition(2, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 8), new ChessPosition(8, 7), null));
+        game.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(1, 4), null));
+
+        // a queen down, black's best is to go back to the position the game started in
+        SearchResult result = engine.search(game, SearchLimits.depth(3));
+        assertEquals(new ChessMove(new ChessPosition(8, 7), new ChessPosition(8, 8), null), result.bestMove());
+        assertEquals(0, result.score());
+    }
+
+    @Test
+    void fiftyMoveRuleScoresAsADraw() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/Q3K3 w - - 99 80");
+        SearchResult result = engine.search(game, SearchLimits.depth(3));
+        assertNotNull(result.bestMove());
+        assertEquals(0, result.score(), "every move is the hundredth without a pawn move or capture");
+    }
+
+    @Test
+    void respectsNodeLimit() {
+        ChessGame game = new ChessGame();
+        SearchResult result = engine.search(game, SearchLimits.nodes(5_000));
+        assertNotNull(result.bestMove());
+        assertTrue(result.depth() >= 1);
+        assertTrue(result.nodes() <= 5_000, "searched " + result.nodes() + " nodes");
+    }
+
+    @Test
+    void respectsTimeLimit() {
+        long start = System.nanoTime();
+        SearchResult result = engine.search(new ChessGame(), SearchLimits.millis(100));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertNotNull(result.bestMove());
+        assertTrue(elapsedMillis < 1_000, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void parallelSearchFindsTheSameMate() {
+        ChessGame game = game("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P|P|
+                |R| | | | | |K| |
+                """, ChessGame.TeamColor.WHITE);
+
+        SearchResult result = new Engine(4).search(game, SearchLimits.depth(4));
+        assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), result.bestMove());
+        assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    void parallelSearchPlaysLegalMoves() {
+        Engine parallel = new Engine(3);
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 6; i++) {
+            SearchResult result = parallel.search(game, SearchLimits.depth(4));
+            assertTrue(game.validMoves(result.bestMove().getStartPosition()).contains(result.bestMove()));
+            assertDoesNotThrow(() -> game.makeMove(result.bestMove()));
+        }
+    }
+
+    @Test
+    void leavesGameUntouched() {
+        ChessGame game = new ChessGame();
+        ChessGame before = game.deepCopy();
+        engine.search(game, SearchLimits.depth(3));
+        assertEquals(before, game);
+        assertEquals(before.getTeamTurn(), game.getTeamTurn());
+    }
+
+    @Test
+    void heuristicOrderingSearchesFewerNodesForTheSameResult() {
+        ChessGame game = new ChessGame();
+        Engine baseline = new Engine();
+        baseline.setOrdering(Engine.Ordering.HASH_AND_CAPTURES);
+
+        SearchResult plain = baseline.search(game, SearchLimits.depth(5));
+        SearchResult ordered = engine.search(game, SearchLimits.depth(5));
+        assertEquals(plain.score(), ordered.score());
+        assertTrue(ordered.nodes() < plain.nodes(),
+                ordered.nodes() + " nodes with heuristics, " + plain.nodes() + " without");
+    }
+}
@@ -0,0 +1,118 @@
+package chess.engine;
+
+import chess.moves.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    // one megabyte holds 16384 buckets of 4 entries
+    private static final long BUCKETS = 16384;
+
+    private static long sameBucket(int n) {
+        return 77L + n * BUCKETS;
+    }
+
+    @Test
+    void storeThenProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.of(12, 28);
+        table.store(0x1234_5678_9ABC_DEF0L, move, -250, 7, TranspositionTable.BOUND_LOWER);
+
+        long data = table.probe(0x1234_5678_9ABC_DEF0L);
+        assertNotEquals(0, data);
+        assertEquals(move, TranspositionTable.move(data));
+        assertEquals(-250, TranspositionTable.score(data));
+        assertEquals(7, TranspositionTable.depth(data));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.bound(data));
+    }
+
+    @Test
+    void sizedInMegabytes() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(1, table.megabytes());
+        assertEquals(BUCKETS * 4, table.capacity());
+        assertEquals(64, new TranspositionTable(64).megabytes());
+    }
+
+    @Test
+    void differentKeyMisses() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(sameBucket(0), Move.of(1, 2), 10, 3, TranspositionTable.BOUND_EXACT);
+        assertEquals(0, table.probe(sameBucket(1)));
+        assertEquals(0, table.probe(sameBucket(0) + 1));
+    }
+
+    @Test
+    void bucketHoldsFourCollidingKeys() {
+        TranspositionTable table = new TranspositionTable(1);
+        for (int n = 0; n < 4; n++) {
+            table.store(sameBucket(n), Move.of(1, 2), n, 5, TranspositionTable.BOUND_EXACT);
+        }
+        for (int n = 0; n < 4; n++) {
+            assertEquals(n, TranspositionTable.score(table.probe(sameBucket(n))));
+        }
+    }
+
+    @Test
+    void fullBucketEvictsShallowestEntry() {
+        TranspositionTable table = new TranspositionTable(1);
+        int[] depths = {6, 2, 9, 4};
+        for (int n = 0; n < 4; n++) {
+            table.store(sameBucket(n), Move.of(1, 2), 0, depths[n], TranspositionTable.BOUND_EXACT);
+        }
+        table.store(sameBucket(4), Move.of(1, 2), 0, 1, TranspositionTable.BOUND_EXACT);
+
+        assertEquals(0, table.probe(sameBucket(1)), "depth 2 entry is replaced");
+        assertNotEquals(0, table.probe(sameBucket(4)));
+        assertNotEquals(0, table.probe(sameBucket(2)));
+    }
+
+    @Test
+    void olderSearchesAreReplacedFirst() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(sameBucket(0), Move.of(1, 2), 0, 8, TranspositionTable.BOUND_EXACT);
+        table.newSearch();
+        table.newSearch();
+        table.newSearch();
+        for (int n = 1; n < 4; n++) {
+            table.store(sameBucket(n), Move.of(1, 2), 0, 5, TranspositionTable.BOUND_EXACT);
+        }
+        table.store(sameBucket(4), Move.of(1, 2), 0, 5, TranspositionTable.BOUND_EXACT);
+        assertEquals(0, table.probe(sameBucket(0)), "stale deep entry is replaced");
+    }
+
+    @Test
+    void shallowerResultKeepsDeeperEntry() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(sameBucket(0), Move.of(1, 2), 50, 8, TranspositionTable.BOUND_LOWER);
+        table.store(sameBucket(0), Move.NONE, 20, 3, TranspositionTable.BOUND_UPPER);
+        assertEquals(8, TranspositionTable.depth(table.probe(sameBucket(0))));
+
+        table.store(sameBucket(0), Move.NONE, 30, 9, TranspositionTable.BOUND_UPPER);
+        long data = table.probe(sameBucket(0));
+        assertEquals(9, TranspositionTable.depth(data));
+        assertEquals(Move.of(1, 2), TranspositionTable.move(data), "best move survives a store without one");
+    }
+
+    @Test
+    void reportsHitRateAndOccupancy() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(0, table.occupancy());
+        for (long key = 0; key < BUCKETS * 2; key++) {
+            table.store(key, Move.of(1, 2), 0, 1, TranspositionTable.BOUND_EXACT);
+        }
+        assertEquals(0.5, table.occupancy(), 1e-9);
+
+        table.probe(1L);
+        table.probe(BUCKETS * 3);
+        assertEquals(2, table.probes());
+        assertEquals(1, table.hits());
+        assertEquals(0.5, table.hitRate());
+
+        table.clear();
+        assertEquals(0, table.occupancy());
+        assertEquals(0, table.probes());
+    }
+}
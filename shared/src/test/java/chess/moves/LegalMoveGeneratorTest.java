@@ -0,0 +1,80 @@
+package chess.moves;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the legal move generator against the pseudo-legal generator it
+ * replaced, filtered by playing each move and testing for check. The old
+ * path never produced castling or en passant, so those are left out of the
+ * comparison; perft covers them against published counts.
+ */
+class LegalMoveGeneratorTest {
+
+    private static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            // pins on every line type, and a check that can be blocked or captured
+            "4k3/4r3/1b6/8/2PPP3/1q1NK2r/8/8 w - - 0 1",
+    };
+
+    @Test
+    void matchesFilteredPseudoLegalMoves() {
+        for (String fen : POSITIONS) {
+            ChessGame game = ChessGame.fromFen(fen);
+            compare(game.getBoard(), game.getTeamTurn(), 3, fen);
+        }
+    }
+
+    private static void compare(ChessBoard board, ChessGame.TeamColor color, int depth, String fen) {
+        Set<Integer> expected = filteredPseudoLegal(board, color);
+        Set<Integer> actual = new TreeSet<>();
+        MoveList moves = new MoveList();
+        LegalMoveGenerator.generate(board, color, -1L, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (!Move.isCastle(move) && !Move.isEnPassant(move)) {
+                actual.add(Move.identity(move));
+            }
+        }
+        assertEquals(expected, actual, () -> "moves differ below " + fen + " in\n" + board);
+
+        if (depth > 1) {
+            for (int move : expected) {
+                long undo = board.makeMove(move);
+                compare(board, color.opponent(), depth - 1, fen);
+                board.unmakeMove(undo);
+            }
+        }
+    }
+
+    private static Set<Integer> filteredPseudoLegal(ChessBoard board, ChessGame.TeamColor color) {
+        MoveList pseudoLegal = new MoveList();
+        for (long pieces = board.occupancy(color); pieces != 0; pieces &= pieces - 1) {
+            ChessPosition from = ChessPosition.fromSquare(Long.numberOfTrailingZeros(pieces));
+            board.getPiece(from).pieceMoves(board, from, pseudoLegal);
+        }
+        Set<Integer> legal = new TreeSet<>();
+        for (int i = 0; i < pseudoLegal.size(); i++) {
+            int move = pseudoLegal.get(i);
+            long undo = board.makeMove(move);
+            long king = board.pieces(color, ChessPiece.PieceType.KING);
+            if (!board.isSquareAttacked(Long.numberOfTrailingZeros(king), color.opponent())) {
+                legal.add(Move.identity(move));
+            }
+            board.unmakeMove(undo);
+        }
+        return legal;
+    }
+}
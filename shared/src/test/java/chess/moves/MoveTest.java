@@ -0,0 +1,107 @@
+package chess.moves;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveTest {
+
+    @Test
+    void fieldsUnpackToWhatWasPacked() {
+        int move = Move.of(52, 63, ChessPiece.PieceType.KNIGHT, Move.FLAG_CAPTURE);
+        assertEquals(52, Move.from(move));
+        assertEquals(63, Move.to(move));
+        assertEquals(ChessPiece.PieceType.KNIGHT, Move.promotion(move));
+        assertTrue(Move.isCapture(move));
+        assertFalse(Move.isEnPassant(move));
+        assertFalse(Move.isCastle(move));
+
+        int quiet = Move.of(0, 63);
+        assertEquals(0, Move.from(quiet));
+        assertEquals(63, Move.to(quiet));
+        assertNull(Move.promotion(quiet));
+        assertFalse(Move.isCapture(quiet));
+
+        assertTrue(Move.isEnPassant(Move.of(36, 45, null, Move.FLAG_CAPTURE | Move.FLAG_EN_PASSANT)));
+        assertTrue(Move.isCastle(Move.of(4, 6, null, Move.FLAG_CASTLE)));
+    }
+
+    @Test
+    void everyPromotionTypeSurvivesPacking() {
+        for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+            assertEquals(type, Move.promotion(Move.of(48, 56, type, 0)));
+        }
+    }
+
+    @Test
+    void identityDropsOnlyTheFlags() {
+        int plain = Move.of(12, 28, ChessPiece.PieceType.QUEEN, 0);
+        int flagged = Move.of(12, 28, ChessPiece.PieceType.QUEEN,
+                Move.FLAG_CAPTURE | Move.FLAG_EN_PASSANT | Move.FLAG_CASTLE);
+        assertEquals(plain, Move.identity(flagged));
+        assertTrue(Move.sameMove(plain, flagged));
+        assertFalse(Move.sameMove(plain, Move.of(12, 28, ChessPiece.PieceType.ROOK, 0)));
+        assertFalse(Move.sameMove(plain, Move.of(12, 29, ChessPiece.PieceType.QUEEN, 0)));
+    }
+
+    @Test
+    void chessMoveRoundTrip() {
+        for (int from = 0; from < 64; from += 7) {
+            for (int to = 0; to < 64; to += 5) {
+                for (ChessPiece.PieceType promotion : new ChessPiece.PieceType[]{null,
+                        ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KNIGHT}) {
+                    ChessMove chessMove = new ChessMove(ChessPosition.fromSquare(from), ChessPosition.fromSquare(to),
+                            promotion);
+                    int packed = Move.fromChessMove(chessMove);
+                    assertEquals(chessMove, Move.toChessMove(packed));
+                    assertEquals(packed, Move.identity(packed), "a ChessMove carries no flags");
+                }
+            }
+        }
+        int flagged = Move.of(4, 6, null, Move.FLAG_CASTLE);
+        assertTrue(Move.sameMove(flagged, Move.fromChessMove(Move.toChessMove(flagged))));
+    }
+
+    @Test
+    void offBoardMovesAreRejected() {
+        ChessMove offBoard = new ChessMove(new ChessPosition(2, 5), new ChessPosition(3, 13), null);
+        assertThrows(IndexOutOfBoundsException.class, () -> Move.fromChessMove(offBoard));
+
+        ChessGame game = new ChessGame();
+        assertThrows(InvalidMoveException.class, () -> game.makeMove(offBoard));
+        assertThrows(InvalidMoveException.class,
+                () -> game.makeMove(new ChessMove(new ChessPosition(0, 5), new ChessPosition(4, 5), null)));
+        assertEquals(new ChessGame(), game, "nothing was played");
+    }
+
+    @Test
+    void moveListGrowsPastItsCapacity() {
+        MoveList moves = new MoveList();
+        for (int i = 0; i < 300; i++) {
+            moves.add(Move.of(i & 63, (i >> 6) & 63));
+        }
+        assertEquals(300, moves.size());
+        assertEquals(Move.of(299 & 63, 299 >> 6), moves.get(299));
+        assertEquals(300, moves.toArray().length);
+        assertTrue(moves.contains(Move.of(10, 2, null, Move.FLAG_CAPTURE)), "contains ignores flags");
+
+        List<ChessMove> converted = new ArrayList<>();
+        moves.addTo(converted);
+        assertEquals(300, converted.size());
+
+        moves.clear();
+        assertTrue(moves.isEmpty());
+
+        MoveList empty = new MoveList(0);
+        empty.add(Move.of(1, 2));
+        assertEquals(1, empty.size());
+    }
+}
@@ -0,0 +1,269 @@
+package chess.tablebase;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.moves.MoveList;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static passoff.chess.TestUtilities.loadBoard;
+
+class TablebaseTest {
+
+    @TempDir
+    static Path directory;
+
+    private static TablebaseGenerator generator;
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        generator = new TablebaseGenerator();
+        for (Material material : Material.values()) {
+            generator.write(material, directory);
+        }
+        tablebase = Tablebase.open(directory);
+    }
+
+    private static ChessGame game(String diagram, ChessGame.TeamColor turn) {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard(diagram));
+        game.setTeamTurn(turn);
+        return game;
+    }
+
+    private static int longestWin(byte[] table) {
+        int longest = 0;
+        for (byte entry : table) {
+            TablebaseResult result = Tablebase.result(entry);
+            if (result != null && result.outcome() == TablebaseResult.Outcome.WIN) {
+                longest = Math.max(longest, result.pliesToMate());
+            }
+        }
+        return longest;
+    }
+
+    @Test
+    void longestMatesMatchKnownValues() {
+        assertEquals(10, (longestWin(generator.generate(Material.KQK)) + 1) / 2);
+        assertEquals(16, (longestWin(generator.generate(Material.KRK)) + 1) / 2);
+        assertEquals(28, (longestWin(generator.generate(Material.KPK)) + 1) / 2);
+        assertEquals(33, (longestWin(generator.generate(Material.KBNK)) + 1) / 2);
+    }
+
+    @Test
+    void probesBishopAndKnightMates() {
+        ChessGame starting = game("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | |N|B| |K| | | |
+                """, ChessGame.TeamColor.WHITE);
+        TablebaseResult result = tablebase.probe(starting);
+        assertEquals(TablebaseResult.Outcome.WIN, result.outcome());
+        assertTrue(result.movesToMate() <= 33);
+
+        ChessGame mateInOne = game("""
+                |k| | | | | | | |
+                | | | |N| | | | |
+                | |K| | | | | | |
+                | | | | | | | | |
+                | | |B| | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.WHITE);
+        assertEquals(new TablebaseResult(TablebaseResult.Outcome.WIN, 1), tablebase.probe(mateInOne));
+
+        // with black to move, the king has no safe square and is not in check
+        mateInOne.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertEquals(new TablebaseResult(TablebaseResult.Outcome.DRAW, 0), tablebase.probe(mateInOne));
+    }
+
+    @Test
+    void probesMateAndStalemate() {
+        ChessGame mateInOne = game("""
+                | | | | | | | |k|
+                | | | | | | | | |
+                | | | | | |K| | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | |Q| |
+                """, ChessGame.TeamColor.WHITE);
+        assertEquals(new TablebaseResult(TablebaseResult.Outcome.WIN, 1), tablebase.probe(mateInOne));
+
+        ChessGame mirrored = game("""
+                | | | | | | |q| |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |k| | |
+                | | | | | | | | |
+                | | | | | | | |K|
+                """, ChessGame.TeamColor.BLACK);
+        assertEquals(new TablebaseResult(TablebaseResult.Outcome.WIN, 1), tablebase.probe(mirrored));
+
+        ChessGame mated = game("""
+                | | | | | | | |k|
+                | | | | | | |Q| |
+                | | | | | |K| | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.BLACK);
+        assertEquals(new TablebaseResult(TablebaseResult.Outcome.LOSS, 0), tablebase.probe(mated));
+
+        ChessGame stalemate = game("""
+                | | | | | | | |k|
+                | | | | | |K| | |
+                | | | | | | |Q| |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.BLACK);
+        assertEquals(new TablebaseResult(TablebaseResult.Outcome.DRAW, 0), tablebase.probe(stalemate));
+    }
+
+    @Test
+    void probesKnownDraws() {
+        ChessGame rookPawn = game("""
+                |k| | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |P| | | | | | | |
+                | |K| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.WHITE);
+        assertEquals(TablebaseResult.Outcome.DRAW, tablebase.probe(rookPawn).outcome());
+
+        ChessGame bareKings = game("""
+                |k| | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | |K|
+                """, ChessGame.TeamColor.WHITE);
+        assertEquals(TablebaseResult.Outcome.DRAW, tablebase.probe(bareKings).outcome());
+        assertNull(tablebase.probe(new ChessGame()));
+    }
+
+    @Test
+    void everyResultFollowsFromTheResultsOfItsMoves() {
+        Random random = new Random(22);
+        int checked = 0;
+        while (checked < 3000) {
+            Material material = Material.values()[random.nextInt(Material.values().length)];
+            ChessGame.TeamColor strong = random.nextBoolean() ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            ChessGame game = randomGame(random, material, strong);
+            TablebaseResult result = tablebase.probe(game);
+            if (result == null || game.legalMoveCount(game.getTeamTurn()) == 0) {
+                continue;
+            }
+            assertEquals(expectedFromMoves(game), result, game.toString());
+            checked++;
+        }
+    }
+
+    private static ChessGame randomGame(Random random, Material material, ChessGame.TeamColor strong) {
+        ChessBoard board = new ChessBoard();
+        long used = 0;
+        ChessPiece.PieceType[] extras = material.extras();
+        ChessPiece[] pieces = new ChessPiece[2 + extras.length];
+        pieces[0] = ChessPiece.of(strong, ChessPiece.PieceType.KING);
+        pieces[1] = ChessPiece.of(strong.opponent(), ChessPiece.PieceType.KING);
+        for (int i = 0; i < extras.length; i++) {
+            pieces[2 + i] = ChessPiece.of(strong, extras[i]);
+        }
+        for (ChessPiece piece : pieces) {
+            int square;
+            do {
+                square = piece.getPieceType() == ChessPiece.PieceType.PAWN ? 8 + random.nextInt(48) : random.nextInt(64);
+            } while ((used & 1L << square) != 0);
+            used |= 1L << square;
+            board.addPiece(ChessPosition.fromSquare(square), piece);
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(random.nextBoolean() ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK);
+        return game;
+    }
+
+    /**
+     * Recomputes a position's result from its moves: the fastest win over
+     * any move into a loss, else a draw, else the slowest loss.
+     */
+    private static TablebaseResult expectedFromMoves(ChessGame game) {
+        MoveList moves = new MoveList();
+        game.legalMoves(game.getTeamTurn(), moves);
+        int fastestWin = Integer.MAX_VALUE;
+        int slowestLoss = -1;
+        boolean draw = false;
+        for (int i = 0; i < moves.size(); i++) {
+            long undo = game.makeMoveUnchecked(moves.get(i));
+            TablebaseResult reply = tablebase.probe(game);
+            game.unmakeMove(undo);
+            switch (reply.outcome()) {
+                case LOSS -> fastestWin = Math.min(fastestWin, reply.pliesToMate() + 1);
+                case DRAW -> draw = true;
+                case WIN -> slowestLoss = Math.max(slowestLoss, reply.pliesToMate() + 1);
+            }
+        }
+        if (fastestWin != Integer.MAX_VALUE) {
+            return new TablebaseResult(TablebaseResult.Outcome.WIN, fastestWin);
+        }
+        if (draw) {
+            return new TablebaseResult(TablebaseResult.Outcome.DRAW, 0);
+        }
+        return new TablebaseResult(TablebaseResult.Outcome.LOSS, slowestLoss);
+    }
+
+    @Test
+    void enginePlaysTablebaseMoves() {
+        Engine engine = new Engine();
+        engine.setTablebase(tablebase);
+        ChessGame game = game("""
+                | | | | | | | |k|
+                | | | | | | | | |
+                | | | | | |K| | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | |Q| |
+                """, ChessGame.TeamColor.WHITE);
+
+        SearchResult result = engine.search(game, SearchLimits.depth(1));
+        assertEquals(new ChessMove(new ChessPosition(1, 7), new ChessPosition(7, 7), null), result.bestMove());
+        assertTrue(result.isMate());
+        assertEquals(1, result.mateIn());
+        assertEquals(0, result.nodes());
+    }
+}